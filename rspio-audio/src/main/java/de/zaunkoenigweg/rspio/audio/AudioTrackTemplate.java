@@ -2,11 +2,14 @@ package de.zaunkoenigweg.rspio.audio;
 
 import java.nio.file.Path;
 import java.time.Duration;
-import java.time.Instant;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import de.zaunkoenigweg.rspio.core.concurrent.Threads;
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
 public abstract class AudioTrackTemplate implements AudioTrack {
 
     private final static Log LOG = LogFactory.getLog(AudioTrackTemplate.class);
@@ -17,6 +20,12 @@ public abstract class AudioTrackTemplate implements AudioTrack {
     
     protected PlaybackState state = PlaybackState.NOT_YET_STARTED;
 
+    /**
+     * Pauses the playback after the duration given to {@link #play(Duration)}.
+     * Pausing talks to the player, so it is handed off to the shared background executor instead of blocking the timer.
+     */
+    private final Timeout autoPause = TimingWheel.getDefault().newTimeout(() -> Threads.background().execute(this::autoPause));
+
     protected AudioTrackTemplate(Path audioFile, PlaybackIndicator playbackIndicator, AudioTrackRegistry runningTracks) {
         super();
         this.audioFile = audioFile;
@@ -30,25 +39,17 @@ public abstract class AudioTrackTemplate implements AudioTrack {
     protected abstract boolean stopAndTerminateImpl();
     
     private void autoPauseAfter(Duration duration) {
-        new Thread(() -> {
-            Instant start = Instant.now();
-            Instant now = Instant.now();
-            while(Duration.between(start, now).compareTo(duration)<0 && state==PlaybackState.PLAYING) {
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    LOG.trace(String.format("audio track '%s': autopause was interrupted.", audioFile));
-                    return;
-                }
-                now = Instant.now();
-            }
-            if(state==PlaybackState.PLAYING) {
-                LOG.trace(String.format("audio track '%s': autopause after %s.", audioFile, duration));
-                pause();
-            } else {
-                LOG.trace(String.format("audio track '%s': autopause after %s interrupted after %s because track is no longer played back.", audioFile, duration, Duration.between(start, now)));
-            }
-        }).start();
+        LOG.trace(String.format("audio track '%s': autopause after %s.", audioFile, duration));
+        autoPause.schedule(duration);
+    }
+
+    private void autoPause() {
+        if(state==PlaybackState.PLAYING) {
+            LOG.trace(String.format("audio track '%s': autopause.", audioFile));
+            pause();
+        } else {
+            LOG.trace(String.format("audio track '%s': autopause skipped because track is no longer played back.", audioFile));
+        }
     }
     
     @Override
@@ -110,6 +111,7 @@ public abstract class AudioTrackTemplate implements AudioTrack {
             case PLAYING:
                 state = pauseImpl() ? PlaybackState.PAUSED : PlaybackState.PLAYING;
                 if(state==PlaybackState.PAUSED) {
+                    autoPause.cancel();
                 	playbackIndicator.stopped();
                     LOG.trace(String.format("audio track '%s': paused.", audioFile));
                 } else {
@@ -167,6 +169,7 @@ public abstract class AudioTrackTemplate implements AudioTrack {
                     state = PlaybackState.TERMINATED;
                 }
                 if(state==PlaybackState.TERMINATED) {
+                    autoPause.cancel();
                     LOG.trace(String.format("audio track '%s': playback stopped.", audioFile));
                     playbackIndicator.stopped();
                     runningTracks.unregister(this);
@@ -2,6 +2,7 @@ package de.zaunkoenigweg.rspio.audio.dummy;
 
 import java.nio.file.Path;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -10,13 +11,27 @@ import de.zaunkoenigweg.rspio.audio.AudioTrackRegistry;
 import de.zaunkoenigweg.rspio.audio.AudioTrackTemplate;
 import de.zaunkoenigweg.rspio.audio.PlaybackIndicator;
 import de.zaunkoenigweg.rspio.audio.PlaybackState;
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
 
 public class DummyAudioTrack extends AudioTrackTemplate {
 
     private final static Log LOG = LogFactory.getLog(DummyAudioTrack.class);
-    private final static long FRAME_LENGTH = 100;
     
-    private long remainingFrames = 0;
+    /**
+     * Remaining playback time in nanoseconds, as of {@link #resumedTimestamp}.
+     */
+    private long remainingNanos = 0;
+    
+    /**
+     * Time the playback was (re)started (see {@link System#nanoTime()}).
+     */
+    private long resumedTimestamp;
+    
+    /**
+     * Completes the playback when the remaining time is over.
+     */
+    private final Timeout completion = TimingWheel.getDefault().newTimeout(this::complete);
     
     public DummyAudioTrack(Path audioFile, AudioTrackRegistry runningTracks) {
         this(audioFile, PlaybackIndicator.ignoring(), runningTracks);
@@ -25,34 +40,15 @@ public class DummyAudioTrack extends AudioTrackTemplate {
     public DummyAudioTrack(Path audioFile, PlaybackIndicator playbackIndicator, AudioTrackRegistry runningTracks) {
         super(audioFile, playbackIndicator, runningTracks);
         int duration = 180 + (new Random()).nextInt(121);
-        remainingFrames = 1000 * duration / FRAME_LENGTH;
+        remainingNanos = TimeUnit.SECONDS.toNanos(duration);
     }
     
     @Override
     protected boolean initAndPlayImpl() {
         try {
-            new Thread(() -> {
-                try {
-                    runningTracks.register(this);
-                	LOG.info(String.format("START of '%s'", this.audioFile.toAbsolutePath().toString()));
-                    while(state!=PlaybackState.TERMINATED && remainingFrames>0) {
-                    	if(state==PlaybackState.PLAYING) {
-                    		remainingFrames--;
-                    	}
-                    	Thread.sleep(FRAME_LENGTH);
-                    }
-                    synchronized (state) {
-	                    if(state!=PlaybackState.TERMINATED) {
-	                    	LOG.info(String.format("STOP (completed) of '%s'", this.audioFile.toAbsolutePath().toString()));
-                            state = PlaybackState.TERMINATED;
-                            playbackIndicator.stopped();
-                            runningTracks.unregister(this);
-	                    }
-                    }
-                } catch (InterruptedException e) {
-                    LOG.error(String.format("Playback of audio track '%s': Thread interrupted.", audioFile), e);
-                }
-            }).start();
+            runningTracks.register(this);
+        	LOG.info(String.format("START of '%s'", this.audioFile.toAbsolutePath().toString()));
+            startPlayback();
             return true;
         } catch (Exception e) {
             LOG.error(String.format("Playback of audio track '%s' could not be started.", audioFile), e);
@@ -60,21 +56,42 @@ public class DummyAudioTrack extends AudioTrackTemplate {
         }
     }
     
+    private void startPlayback() {
+        resumedTimestamp = System.nanoTime();
+        completion.schedule(remainingNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private void complete() {
+        synchronized (state) {
+            if(state!=PlaybackState.TERMINATED) {
+            	LOG.info(String.format("STOP (completed) of '%s'", this.audioFile.toAbsolutePath().toString()));
+                state = PlaybackState.TERMINATED;
+                playbackIndicator.stopped();
+                runningTracks.unregister(this);
+            }
+        }
+    }
+    
     @Override
     protected boolean pauseImpl() {
     	LOG.info(String.format("PAUSE of '%s'", this.audioFile.toAbsolutePath().toString()));
+    	if(completion.cancel()) {
+    	    remainingNanos = Math.max(0, remainingNanos - (System.nanoTime() - resumedTimestamp));
+    	}
     	return true;
     }
     
     @Override
     protected boolean resumeImpl() {
     	LOG.info(String.format("RESUME of '%s'", this.audioFile.toAbsolutePath().toString()));
+    	startPlayback();
     	return true;
     }
     
     @Override
     protected boolean stopAndTerminateImpl() {
     	LOG.info(String.format("STOP (terminated) of '%s'", this.audioFile.toAbsolutePath().toString()));
+    	completion.cancel();
     	return true;
     }
 
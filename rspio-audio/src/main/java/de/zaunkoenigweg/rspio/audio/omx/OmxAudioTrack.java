@@ -11,6 +11,7 @@ import de.zaunkoenigweg.rspio.audio.AudioTrackRegistry;
 import de.zaunkoenigweg.rspio.audio.AudioTrackTemplate;
 import de.zaunkoenigweg.rspio.audio.PlaybackIndicator;
 import de.zaunkoenigweg.rspio.audio.PlaybackState;
+import de.zaunkoenigweg.rspio.core.concurrent.Threads;
 
 public class OmxAudioTrack extends AudioTrackTemplate {
 
@@ -32,7 +33,7 @@ public class OmxAudioTrack extends AudioTrackTemplate {
         try {
             omxProcess = new ProcessBuilder("bash", "-c", "omxplayer " + StringUtils.replace(this.audioFile.toString(), " ", "\\ ")).start();
             omxInputWriter = new PrintWriter(omxProcess.getOutputStream());
-            new Thread(() -> {
+            Threads.start("rspio-omx-" + audioFile.getFileName(), () -> {
                 try {
                     runningTracks.register(this);
                     omxProcess.waitFor();
@@ -46,7 +47,7 @@ public class OmxAudioTrack extends AudioTrackTemplate {
                 } catch (InterruptedException e) {
                     LOG.error(String.format("Playback of audio track '%s': Thread interrupted.", audioFile), e);
                 }
-            }).start();
+            });
             return true;
         } catch (Exception e) {
             LOG.error(String.format("Playback of audio track '%s' could not be started.", audioFile), e);
@@ -1,5 +1,12 @@
 package de.zaunkoenigweg.rspio.core.component;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
 import javax.annotation.PostConstruct;
 
 import org.apache.commons.logging.Log;
@@ -9,7 +16,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.pi4j.io.gpio.Pin;
 
+import de.zaunkoenigweg.rspio.core.input.BlockedEventPolicy;
 import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.input.InputFilter;
+import de.zaunkoenigweg.rspio.core.input.Priority;
 
 /**
  * Base class for all digital input components.
@@ -22,6 +32,13 @@ public abstract class AbstractDigitalInputComponent implements DigitalInputCompo
     
     private String name;
     private Pin pin;
+    private boolean coalescingTransitions = false;
+    private Priority priority = Priority.NORMAL;
+    private List<InputFilter> inputFilters = Collections.emptyList();
+    private Set<String> groups = Collections.emptySet();
+    private BlockedEventPolicy blockedEventPolicy = BlockedEventPolicy.DISCARD;
+    private int blockedEventCapacity = 64;
+    private boolean blockedWhileRunning = false;
 
     /**
      * This controller handles the GPIO input. This component registers itself to the controller after its construction.
@@ -49,7 +66,7 @@ public abstract class AbstractDigitalInputComponent implements DigitalInputCompo
             LOG.error(errorMessage);
             throw new BeanCreationException(errorMessage);
         }
-        if(!this.inputController.register(this)) {
+        if(!this.inputController.register(this, this.priority)) {
             String errorMessage = String.format("DigitalInputComponent '%s' could not be registered.", this.name);
             LOG.error(errorMessage);
             throw new BeanCreationException(errorMessage);
@@ -64,4 +81,109 @@ public abstract class AbstractDigitalInputComponent implements DigitalInputCompo
     public String getName() {
         return name;
     }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority class this component is registered with. Must be set before registration.
+     * @param priority priority class (default: {@link Priority#NORMAL})
+     */
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    @Override
+    public List<InputFilter> getInputFilters() {
+        return inputFilters;
+    }
+
+    /**
+     * Sets the filters applied to the edges of this component's pin, e.g.
+     * <pre>setInputFilters(new GlitchFilter(Duration.ofMillis(2)), new DebounceFilter(Duration.ofMillis(20)))</pre>
+     * 
+     * Must be set before the InputController is started.
+     * 
+     * @param inputFilters filters in order of processing
+     */
+    public void setInputFilters(InputFilter... inputFilters) {
+        this.inputFilters = Collections.unmodifiableList(Arrays.asList(inputFilters));
+    }
+
+    @Override
+    public Set<String> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Sets the groups this component belongs to. Must be set before the InputController is started.
+     * @param groups names of the groups
+     */
+    public void setGroups(String... groups) {
+        this.groups = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(groups)));
+    }
+
+    @Override
+    public BlockedEventPolicy getBlockedEventPolicy() {
+        return blockedEventPolicy;
+    }
+
+    /**
+     * Sets what happens to the events of this component while it is blocked. Must be set before the InputController is started.
+     * @param blockedEventPolicy policy (default: {@link BlockedEventPolicy#DISCARD})
+     */
+    public void setBlockedEventPolicy(BlockedEventPolicy blockedEventPolicy) {
+        this.blockedEventPolicy = blockedEventPolicy;
+    }
+
+    @Override
+    public int getBlockedEventCapacity() {
+        return blockedEventCapacity;
+    }
+
+    /**
+     * Sets the maximum number of events kept while this component is blocked (see {@link BlockedEventPolicy#BUFFER}).
+     * @param blockedEventCapacity capacity (default: 64)
+     */
+    public void setBlockedEventCapacity(int blockedEventCapacity) {
+        this.blockedEventCapacity = blockedEventCapacity;
+    }
+
+    /**
+     * Runs an asynchronous action of this component (see {@link InputController#runAsync(DigitalInputComponent, AsyncAction, boolean)}).
+     * @param action action
+     * @return stage of the action
+     */
+    protected CompletionStage<?> runAsync(AsyncAction action) {
+        return inputController.runAsync(this, action, blockedWhileRunning);
+    }
+
+    public boolean isBlockedWhileRunning() {
+        return blockedWhileRunning;
+    }
+
+    /**
+     * Blocks this component while one of its asynchronous actions is running.
+     * @param blockedWhileRunning true, to block (default: false)
+     */
+    public void setBlockedWhileRunning(boolean blockedWhileRunning) {
+        this.blockedWhileRunning = blockedWhileRunning;
+    }
+
+    @Override
+    public boolean isCoalescingTransitions() {
+        return coalescingTransitions;
+    }
+
+    /**
+     * Lets the dispatcher collapse transitions that cancel each other out when it drains a batch of events.
+     * 
+     * Set this only for components that just care about the latest state of their pin.
+     * 
+     * @param coalescingTransitions true, to opt in (default: false)
+     */
+    public void setCoalescingTransitions(boolean coalescingTransitions) {
+        this.coalescingTransitions = coalescingTransitions;
+    }
 }
@@ -0,0 +1,31 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Action to perform asynchronously when InputComponent is triggered, e.g.
+ * <pre>
+ * executor -&gt; CompletableFuture.runAsync(() -&gt; playSomething(), executor)
+ * </pre>
+ * 
+ * The dispatcher tracks the returned stage: it counts the action as in flight until the stage completes,
+ * and optionally blocks the component until then, so there is no need to spawn threads or to call
+ * {@link Blockable#unblock()} by hand.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+@FunctionalInterface
+public interface AsyncAction {
+
+    /**
+     * Starts this action.
+     * 
+     * This method is called by the event handling thread of RSPIO, so it <u>must</u> terminate immediately.
+     * The actual work must be run by the given executor (or any other asynchronous facility).
+     * 
+     * @param executor shared, bounded executor of RSPIO for the work of actions
+     * @return stage completing when the work of the action is done
+     */
+    CompletionStage<?> run(Executor executor);
+}
@@ -1,11 +1,62 @@
 package de.zaunkoenigweg.rspio.core.component;
 
+import java.time.Duration;
+
+import com.pi4j.io.gpio.Pin;
+
 /**
  * Anything that can be blocked and unblocked ;-) 
  *
+ * Besides blocking everything by {@link #block()}/{@link #unblock()}, blocks can be scoped to a pin,
+ * a group of components (see {@link DigitalInputComponent#getGroups()}) or all pins.
+ * Scoped blocks are released by closing their {@link BlockingToken} or after an optional timeout.
+ * By default, a scoped block blocks everything by {@link #block()} and is released by {@link #unblock()},
+ * implementations like the dispatcher block just the given scope.
+ *
  * @author mail@nikolaus-winter.de
  */
 public interface Blockable {
     void block();
     void unblock();
+
+    /**
+     * Blocks the events of one pin.
+     * @param pin pin
+     * @param timeout time after which the block is released automatically, null for none
+     * @return token releasing the block
+     */
+    default BlockingToken blockPin(Pin pin, Duration timeout) {
+        return new BlockingAllToken(this, timeout);
+    }
+
+    /**
+     * Blocks the events of all components of a group.
+     * @param group name of the group
+     * @param timeout time after which the block is released automatically, null for none
+     * @return token releasing the block
+     */
+    default BlockingToken blockGroup(String group, Duration timeout) {
+        return new BlockingAllToken(this, timeout);
+    }
+
+    /**
+     * Blocks the events of all pins.
+     * @param timeout time after which the block is released automatically, null for none
+     * @return token releasing the block
+     */
+    default BlockingToken blockAll(Duration timeout) {
+        return new BlockingAllToken(this, timeout);
+    }
+
+    default BlockingToken blockPin(Pin pin) {
+        return blockPin(pin, null);
+    }
+
+    default BlockingToken blockGroup(String group) {
+        return blockGroup(group, null);
+    }
+
+    default BlockingToken blockAll() {
+        return blockAll(null);
+    }
 }
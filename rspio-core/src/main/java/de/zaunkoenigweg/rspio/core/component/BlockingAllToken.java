@@ -0,0 +1,59 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * {@link BlockingToken} of a {@link Blockable} without scoped blocks of its own.
+ * 
+ * The token blocks the whole blockable by {@link Blockable#block()} and unblocks it by {@link Blockable#unblock()}.
+ * Such blocks do not nest: closing any token unblocks the blockable.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class BlockingAllToken implements BlockingToken {
+
+    private final Blockable blockable;
+
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /**
+     * Releases the block on timeout, null if there is no timeout.
+     */
+    private final Timeout timeout;
+
+    /**
+     * Creates the token and blocks the blockable.
+     * @param blockable blockable
+     * @param timeout time after which the block is released automatically, null for none
+     */
+    BlockingAllToken(Blockable blockable, Duration timeout) {
+        this.blockable = blockable;
+        blockable.block();
+        this.timeout = timeout != null ? TimingWheel.getDefault().schedule(this::close, timeout) : null;
+    }
+
+    @Override
+    public void close() {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        blockable.unblock();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Block of %s", blockable);
+    }
+}
@@ -0,0 +1,30 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+/**
+ * Block made through a {@link Blockable}. The block lasts until the token is closed (or its timeout expires), e.g.
+ * <pre>
+ * BlockingToken token = blockable.blockGroup("panel", Duration.ofSeconds(30));
+ * new Thread(() -&gt; {
+ *     try (BlockingToken t = token) {
+ *         // long running action
+ *     }
+ * }).start();
+ * </pre>
+ * 
+ * Blocks of the same scope nest: the scope is unblocked once all of its tokens are closed.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+public interface BlockingToken extends AutoCloseable {
+
+    /**
+     * Releases the block. Further calls have no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * @return Has the block been released (by {@link #close()} or timeout)?
+     */
+    boolean isReleased();
+}
@@ -0,0 +1,239 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.input.InputController;
+
+/**
+ * Detects chords, i.e. combinations of buttons pushed together within a time window (e.g. for service functions).
+ * 
+ * The detector observes the events of the pins of its chords (see {@link InputObserver}), alongside the components
+ * registered for these pins (so each pin of a chord needs a registered component). Buttons are considered to be pushed when their pin is LOW (see {@link PushButton}).
+ * 
+ * A chord fires when the set of pushed pins becomes exactly its set of pins, and all of them have been pushed within its time window.
+ * The pushed pins are kept in a bitmask, and the chord is looked up by this bitmask in a hash table,
+ * so matching an edge does not depend on the number of chords and does not allocate.
+ * 
+ * By default, the components still get all events of their pins. A suppressing chord hides the events of its pins
+ * from their components from the push completing the chord until the pins are released. Pushes before the completing one
+ * have already been dispatched by then.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class ChordDetector implements InputObserver {
+
+    private final static Log LOG = LogFactory.getLog(ChordDetector.class);
+
+    /**
+     * Maximum number of pins of all chords of a detector (size of the bitmask).
+     */
+    private final static int MAX_PINS = 64;
+
+    private static class Chord {
+        final String name;
+        final long mask;
+        final long windowNanos;
+        final Action action;
+        final boolean suppressing;
+
+        Chord(String name, long mask, Duration window, Action action, boolean suppressing) {
+            this.name = name;
+            this.mask = mask;
+            this.windowNanos = window.toNanos();
+            this.action = action;
+            this.suppressing = suppressing;
+        }
+    }
+
+    private final String name;
+
+    /**
+     * Bit index of each pin. Read by the dispatcher without locking, so {@link #addChord(String, Duration, Action, boolean, Pin...)}
+     * publishes an unmodifiable copy.
+     */
+    private volatile Map<Pin, Integer> bits = Collections.emptyMap();
+
+    /**
+     * Chords, hashed by their bitmask (open addressing with linear probing).
+     */
+    private long[] chordMasks = new long[16];
+    private Chord[] chords = new Chord[16];
+    private int chordCount = 0;
+
+    /**
+     * Currently pushed pins.
+     */
+    private long pushed = 0;
+
+    /**
+     * Pins whose events are suppressed until they are released.
+     */
+    private long suppressed = 0;
+
+    /**
+     * Time each pin was pushed (indexed by bit, see {@link System#nanoTime()}).
+     */
+    private final long[] pushedTimestamps = new long[MAX_PINS];
+
+    /**
+     * The detector registers itself to this controller after its construction.
+     */
+    @Autowired
+    protected InputController inputController;
+
+    /**
+     * Creates a ChordDetector.
+     * @param name Name of this detector
+     */
+    public ChordDetector(String name) {
+        this.name = name;
+    }
+
+    /**
+     * After construction this detector registers itself to the InputController
+     */
+    @PostConstruct
+    public void register() {
+        if(inputController==null || !inputController.registerObserver(this)) {
+            String errorMessage = String.format("ChordDetector '%s' could not be registered.", this.name);
+            LOG.error(errorMessage);
+            throw new BeanCreationException(errorMessage);
+        }
+    }
+
+    /**
+     * Adds a chord. Can be called while the InputController is running.
+     * @param name name of the chord
+     * @param window time within which all pins must be pushed
+     * @param action action to be executed when the chord is pushed
+     * @param suppressing Should the events of the chord's pins be hidden from their components once the chord has been pushed?
+     * @param pins pins of the chord (at least two)
+     */
+    public synchronized void addChord(String name, Duration window, Action action, boolean suppressing, Pin... pins) {
+        if (pins.length < 2) {
+            throw new IllegalArgumentException(String.format("Chord '%s' needs at least two pins.", name));
+        }
+        Map<Pin, Integer> newBits = new HashMap<>(bits);
+        long mask = 0;
+        for (Pin pin : pins) {
+            Integer bit = newBits.get(pin);
+            if (bit == null) {
+                if (newBits.size() == MAX_PINS) {
+                    throw new IllegalArgumentException(String.format("Chord '%s' could not be added. ChordDetector '%s' supports %d pins at most.", name, this.name, MAX_PINS));
+                }
+                bit = newBits.size();
+                newBits.put(pin, bit);
+            }
+            mask |= 1L << bit;
+        }
+        if (find(mask) != null) {
+            throw new IllegalArgumentException(String.format("Chord '%s' could not be added. Its pins are used by another chord.", name));
+        }
+        bits = Collections.unmodifiableMap(newBits);
+        if ((chordCount + 1) * 2 > chords.length) {
+            rehash(chords.length * 2);
+        }
+        insert(new Chord(name, mask, window, action, suppressing));
+        LOG.info(String.format("Chord '%s' added to ChordDetector '%s' (pins %s, window %s).", name, this.name, Arrays.toString(pins), window));
+    }
+
+    @Override
+    public boolean observe(DigitalInputComponent component, PinState state, long timestamp, Blockable blockable) {
+        Integer bit = bits.get(component.getPin());
+        if (bit == null) {
+            return false;
+        }
+        long pinMask = 1L << bit;
+        Chord chord = null;
+        boolean suppress;
+        synchronized (this) {
+            if (state == PinState.LOW) {
+                pushed |= pinMask;
+                pushedTimestamps[bit] = timestamp;
+                chord = find(pushed);
+                if (chord != null && isWithinWindow(chord, timestamp)) {
+                    if (chord.suppressing) {
+                        suppressed |= chord.mask;
+                    }
+                } else {
+                    chord = null;
+                }
+            } else {
+                pushed &= ~pinMask;
+            }
+            suppress = (suppressed & pinMask) != 0;
+            if (state == PinState.HIGH) {
+                suppressed &= ~pinMask;
+            }
+        }
+        if (chord != null) {
+            LOG.info(String.format("Chord '%s' of ChordDetector '%s' pushed.", chord.name, this.name));
+            chord.action.run(blockable);
+        }
+        return suppress;
+    }
+
+    private boolean isWithinWindow(Chord chord, long timestamp) {
+        for (long mask = chord.mask; mask != 0; mask &= mask - 1) {
+            if (timestamp - pushedTimestamps[Long.numberOfTrailingZeros(mask)] > chord.windowNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Chord find(long mask) {
+        for (int index = slot(mask, chords.length); chords[index] != null; index = (index + 1) & (chords.length - 1)) {
+            if (chordMasks[index] == mask) {
+                return chords[index];
+            }
+        }
+        return null;
+    }
+
+    private void insert(Chord chord) {
+        int index = slot(chord.mask, chords.length);
+        while (chords[index] != null) {
+            index = (index + 1) & (chords.length - 1);
+        }
+        chordMasks[index] = chord.mask;
+        chords[index] = chord;
+        chordCount++;
+    }
+
+    private void rehash(int size) {
+        Chord[] oldChords = chords;
+        chordMasks = new long[size];
+        chords = new Chord[size];
+        chordCount = 0;
+        for (Chord chord : oldChords) {
+            if (chord != null) {
+                insert(chord);
+            }
+        }
+    }
+
+    private static int slot(long mask, int size) {
+        long hash = mask * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (size - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChordDetector '%s'", this.name);
+    }
+}
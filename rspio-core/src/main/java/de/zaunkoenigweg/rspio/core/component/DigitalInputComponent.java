@@ -1,5 +1,13 @@
 package de.zaunkoenigweg.rspio.core.component;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import de.zaunkoenigweg.rspio.core.input.BlockedEventPolicy;
+import de.zaunkoenigweg.rspio.core.input.InputFilter;
+import de.zaunkoenigweg.rspio.core.input.Priority;
+
 /**
  * Component that registers digital input from GPIO ports.
  * 
@@ -36,4 +44,93 @@ public interface DigitalInputComponent extends InputComponent {
      * @param blockable can be used to block/unblock further event processing.
      */
     public void changedToLow(Blockable blockable);
+
+    /**
+     * Event handler that gets fired if input is changed to HIGH.
+     * 
+     * This variant is called by the dispatcher. It knows when the GPIO listener received the event,
+     * so components measuring time are not skewed by queueing delays.
+     * By default, it calls {@link #changedToHigh(Blockable)}.
+     * 
+     * @param blockable can be used to block/unblock further event processing.
+     * @param timestamp time the GPIO listener received the event (see {@link System#nanoTime()})
+     */
+    public default void changedToHigh(Blockable blockable, long timestamp) {
+        changedToHigh(blockable);
+    }
+
+    /**
+     * Event handler that gets fired if input is changed to LOW.
+     * 
+     * This variant is called by the dispatcher. It knows when the GPIO listener received the event,
+     * so components measuring time are not skewed by queueing delays.
+     * By default, it calls {@link #changedToLow(Blockable)}.
+     * 
+     * @param blockable can be used to block/unblock further event processing.
+     * @param timestamp time the GPIO listener received the event (see {@link System#nanoTime()})
+     */
+    public default void changedToLow(Blockable blockable, long timestamp) {
+        changedToLow(blockable);
+    }
+
+    /**
+     * Priority class of this component's events, used when it is registered as part of a set of components
+     * (see {@link de.zaunkoenigweg.rspio.core.input.InputController#replace(java.util.Collection, java.util.Collection)}).
+     * 
+     * @return priority class (default: {@link Priority#NORMAL})
+     */
+    public default Priority getPriority() {
+        return Priority.NORMAL;
+    }
+
+    /**
+     * Does this component only care about the latest state of its pin?
+     * 
+     * If so, the dispatcher may skip transitions that cancel each other out (e.g. LOW/HIGH while HIGH)
+     * when it drains a batch of queued events. Components that count every transition (like a {@link PushButton})
+     * must return false.
+     * 
+     * @return true, if cancelling transitions may be collapsed (default: false)
+     */
+    public default boolean isCoalescingTransitions() {
+        return false;
+    }
+
+    /**
+     * Filters (e.g. debouncing) applied to the edges of this component's pin before they are queued.
+     * 
+     * The filters keep the state of this component's pin, so they must not be shared with other components.
+     * 
+     * @return filters in order of processing (default: none)
+     */
+    public default List<InputFilter> getInputFilters() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Groups this component belongs to, e.g. the panel it is mounted on. A group can be blocked as a whole (see {@link Blockable#blockGroup(String, java.time.Duration)}).
+     * 
+     * @return names of the groups (default: none)
+     */
+    public default Set<String> getGroups() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * What happens to the events of this component while it is blocked.
+     * 
+     * @return policy (default: {@link BlockedEventPolicy#DISCARD})
+     */
+    public default BlockedEventPolicy getBlockedEventPolicy() {
+        return BlockedEventPolicy.DISCARD;
+    }
+
+    /**
+     * Maximum number of events kept while this component is blocked (only used for {@link BlockedEventPolicy#BUFFER}).
+     * 
+     * @return capacity (default: 64)
+     */
+    public default int getBlockedEventCapacity() {
+        return 64;
+    }
 }
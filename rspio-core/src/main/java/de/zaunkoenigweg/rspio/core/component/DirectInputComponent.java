@@ -0,0 +1,60 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.util.List;
+
+import com.pi4j.io.gpio.Pin;
+
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Digital input component that handles the edges of its pins itself, on the GPIO listener threads.
+ * 
+ * Components for high edge rates (e.g. rotary encoders) cannot afford an event and a dispatcher hop per edge.
+ * A direct input component processes the edges of its pins right in the listener instead, and only publishes
+ * the events its event handlers ({@link #changedToHigh(Blockable, long)}, {@link #changedToLow(Blockable, long)})
+ * must see (see {@link EventPublisher}).
+ * 
+ * Input filters apply only to direct input components with a single pin, they do not apply to components with more pins.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public interface DirectInputComponent extends DigitalInputComponent {
+
+    /**
+     * All GPIO pins of this component. The first one is the pin the component is registered with ({@link #getPin()}),
+     * the others are reserved for this component, too.
+     * 
+     * @return pins, indexed as passed to {@link #edge(int, boolean, long)}
+     */
+    public List<Pin> getInputPins();
+
+    /**
+     * Connects this component to the dispatcher. Called when the InputController is started, before the first edge.
+     * 
+     * @param publisher queues events of this component
+     * @param timingWheel timer of the InputController
+     */
+    public void connect(EventPublisher publisher, TimingWheel timingWheel);
+
+    /**
+     * Passes the state of one of this component's pins. Called for each pin after {@link #connect(EventPublisher, TimingWheel)},
+     * before the first edge of a pin that has not been listened to before.
+     * 
+     * @param input index of the pin in {@link #getInputPins()}
+     * @param high state of the pin
+     */
+    public default void initialize(int input, boolean high) {
+    }
+
+    /**
+     * Handles an edge of one of this component's pins.
+     * 
+     * This method is called by the GPIO listener threads, possibly concurrently for different pins.
+     * It <u>must</u> not block and should not allocate anything.
+     * 
+     * @param input index of the pin in {@link #getInputPins()}
+     * @param high new state of the pin
+     * @param timestamp time the GPIO listener received the edge (see {@link System#nanoTime()})
+     */
+    public void edge(int input, boolean high, long timestamp);
+}
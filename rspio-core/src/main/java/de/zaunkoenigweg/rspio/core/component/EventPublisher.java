@@ -0,0 +1,22 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Queues events of a {@link DirectInputComponent} for the dispatcher, which calls the component's event handlers as usual.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+@FunctionalInterface
+public interface EventPublisher {
+
+    /**
+     * Queues an event. Events are subject to blocks like the events of any other component.
+     * 
+     * This method does not lock, it may be called by the GPIO listener threads.
+     * 
+     * @param state state passed to the component's event handler
+     * @param timestamp time of the event (see {@link System#nanoTime()})
+     */
+    void publish(PinState state, long timestamp);
+}
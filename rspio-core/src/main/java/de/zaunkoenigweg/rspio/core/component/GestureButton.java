@@ -0,0 +1,351 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Gesture-Button for Raspberry Pi GPIO Port.
+ *
+ * A Gesture-Button is considered to be pushed when connected to GND and released when connected to 3v3.
+ * This requires a hardware(!) pull-up resistor connected to 3v3.
+ *
+ * A Gesture-Button recognizes
+ * <ul>
+ * <li>click gestures: one or more clicks, each following the previous one within the click window,</li>
+ * <li>long press: the button is held down for the long press duration.</li>
+ * </ul>
+ *
+ * Each gesture has an action of its own. A click gesture is recognized as soon as no further click can follow:
+ * immediately, if there is no action for more clicks, otherwise when the click window has passed.
+ *
+ * Recognition is a state machine driven by the edges of the pin (see {@link DirectInputComponent}) and two reusable timeouts
+ * on the timer of the InputController, so it does not allocate anything per event. Recognized gestures are published
+ * to the dispatcher, which runs their actions like the actions of any other component.
+ *
+ * @author mail@nikolaus-winter.de
+ *
+ */
+public class GestureButton extends AbstractDigitalInputComponent implements DirectInputComponent {
+
+    private final static Log LOG = LogFactory.getLog(GestureButton.class);
+
+    /**
+     * Maximum number of recognized gestures waiting for the dispatcher.
+     */
+    private final static int GESTURE_CAPACITY = 16;
+
+    private enum State {
+        /**
+         * No gesture in progress.
+         */
+        IDLE,
+        /**
+         * Button is pushed.
+         */
+        PUSHED,
+        /**
+         * Button has been released, another click may follow.
+         */
+        RELEASED,
+        /**
+         * Long press has been recognized, waiting for the release.
+         */
+        LONG_PRESSED
+    }
+
+    /**
+     * Actions of the click gestures (indexed by number of clicks).
+     */
+    private Action[] clickActions = new Action[1];
+
+    private Action longPressAction;
+
+    private Duration clickWindow = Duration.ofMillis(300);
+
+    private Duration longPressDuration = Duration.ofMillis(800);
+
+    private State state = State.IDLE;
+
+    /**
+     * Number of clicks of the current gesture.
+     */
+    private int clicks = 0;
+
+    /**
+     * Time the button was pushed (see {@link System#nanoTime()}).
+     */
+    private long pushedTimestamp;
+
+    /**
+     * Time the click window or the long press duration ends (see {@link System#nanoTime()}).
+     */
+    private long deadline;
+
+    /**
+     * Published gestures not yet run by the dispatcher: times of their events (see {@link System#nanoTime()}).
+     */
+    private final long[] gestureTimestamps = new long[GESTURE_CAPACITY];
+
+    /**
+     * Published gestures not yet run by the dispatcher: number of clicks, 0 for long press.
+     */
+    private final int[] gestureClicks = new int[GESTURE_CAPACITY];
+
+    /**
+     * Index of the oldest published gesture.
+     */
+    private int gestureHead = 0;
+
+    /**
+     * Number of published gestures.
+     */
+    private int gestureCount = 0;
+
+    private EventPublisher publisher;
+
+    private Timeout clickTimeout;
+
+    private Timeout longPressTimeout;
+
+    public GestureButton(String name, Pin pin) {
+        super(name, pin);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GestureButton '%s' (Pin %s)", this.getName(), this.getPin());
+    }
+
+    @Override
+    public List<Pin> getInputPins() {
+        return Collections.singletonList(getPin());
+    }
+
+    @Override
+    public synchronized void connect(EventPublisher publisher, TimingWheel timingWheel) {
+        this.publisher = publisher;
+        this.clickTimeout = timingWheel.newTimeout(this::clickWindowPassed);
+        this.longPressTimeout = timingWheel.newTimeout(this::longPressDurationPassed);
+        this.state = State.IDLE;
+        this.gestureCount = 0;
+    }
+
+    @Override
+    public void edge(int input, boolean high, long timestamp) {
+        if (high) {
+            released(timestamp);
+        } else {
+            pushed(timestamp);
+        }
+    }
+
+    private synchronized void pushed(long timestamp) {
+        switch (state) {
+        case IDLE:
+            clicks = 0;
+            break;
+        case RELEASED:
+            clickTimeout.cancel();
+            break;
+        case PUSHED:
+        case LONG_PRESSED:
+            // missed the release
+            LOG.debug(String.format("GestureButton for Pin %s pushed twice.", this.getPin()));
+            return;
+        }
+        state = State.PUSHED;
+        pushedTimestamp = timestamp;
+        if (longPressAction != null) {
+            deadline = timestamp + longPressDuration.toNanos();
+            longPressTimeout.schedule(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void released(long timestamp) {
+        switch (state) {
+        case IDLE:
+        case RELEASED:
+            // missed the push
+            return;
+        case LONG_PRESSED:
+            state = State.IDLE;
+            return;
+        case PUSHED:
+            break;
+        }
+        if (longPressAction != null) {
+            longPressTimeout.cancel();
+            if (timestamp - pushedTimestamp >= longPressDuration.toNanos()) {
+                // the timeout has not been run yet
+                state = State.IDLE;
+                publishGesture(0, timestamp);
+                return;
+            }
+        }
+        clicks++;
+        if (clicks >= clickActions.length - 1) {
+            // no action for more clicks
+            state = State.IDLE;
+            if (clicks < clickActions.length && clickActions[clicks] != null) {
+                publishGesture(clicks, timestamp);
+            }
+        } else {
+            state = State.RELEASED;
+            deadline = timestamp + clickWindow.toNanos();
+            clickTimeout.schedule(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void clickWindowPassed() {
+        // the timeout may have been replaced while it was waiting for the lock
+        if (state != State.RELEASED || System.nanoTime() - deadline < 0) {
+            return;
+        }
+        state = State.IDLE;
+        if (clickActions[clicks] != null) {
+            publishGesture(clicks, System.nanoTime());
+        }
+    }
+
+    private synchronized void longPressDurationPassed() {
+        if (state != State.PUSHED || System.nanoTime() - deadline < 0) {
+            return;
+        }
+        state = State.LONG_PRESSED;
+        publishGesture(0, System.nanoTime());
+    }
+
+    /**
+     * Queues a recognized gesture and publishes its event. Must be called holding the lock,
+     * so the gestures are queued in the order of their events.
+     * @param clicks number of clicks, 0 for long press
+     * @param timestamp time of the event (see {@link System#nanoTime()})
+     */
+    private void publishGesture(int clicks, long timestamp) {
+        if (gestureCount == GESTURE_CAPACITY) {
+            LOG.warn(String.format("GestureButton for Pin %s: too many gestures waiting for the dispatcher, gesture dropped.", this.getPin()));
+            return;
+        }
+        int index = (gestureHead + gestureCount) % GESTURE_CAPACITY;
+        gestureTimestamps[index] = timestamp;
+        gestureClicks[index] = clicks;
+        gestureCount++;
+        publisher.publish(PinState.LOW, timestamp);
+    }
+
+    /**
+     * Takes the gesture of an event from the queue, dropping older gestures whose events have not been dispatched
+     * (e.g. because the component was blocked).
+     * @param timestamp time of the event, {@link Long#MIN_VALUE} for the oldest gesture
+     * @return number of clicks, 0 for long press, -1 if there is no gesture for the event
+     */
+    private synchronized int takeGesture(long timestamp) {
+        while (gestureCount > 0) {
+            long gestureTimestamp = gestureTimestamps[gestureHead];
+            int clicks = gestureClicks[gestureHead];
+            if (timestamp != Long.MIN_VALUE && gestureTimestamp - timestamp > 0) {
+                return -1;
+            }
+            gestureHead = (gestureHead + 1) % GESTURE_CAPACITY;
+            gestureCount--;
+            if (timestamp == Long.MIN_VALUE || gestureTimestamp == timestamp) {
+                return clicks;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void changedToHigh(Blockable blockable) {
+        // only LOW events are published
+    }
+
+    @Override
+    public void changedToLow(Blockable blockable) {
+        run(takeGesture(Long.MIN_VALUE), blockable);
+    }
+
+    @Override
+    public void changedToLow(Blockable blockable, long timestamp) {
+        run(takeGesture(timestamp), blockable);
+    }
+
+    private void run(int clicks, Blockable blockable) {
+        Action action;
+        synchronized (this) {
+            if (clicks < 0) {
+                return;
+            }
+            action = clicks > 0 ? clickActions[clicks] : longPressAction;
+        }
+        if (action == null) {
+            return;
+        }
+        if (clicks > 0) {
+            LOG.info(String.format("GestureButton for Pin %s clicked %d time(s).", this.getPin(), clicks));
+        } else {
+            LOG.info(String.format("GestureButton for Pin %s long pressed.", this.getPin()));
+        }
+        action.run(blockable);
+    }
+
+    /**
+     * Sets action to be executed when the button is clicked the given number of times.
+     *
+     * This action should not block the calling thread too long.
+     * If execution time is considered long, the action should spawn
+     * a new thread of execution.
+     *
+     * @param clicks number of clicks (1 for single click, 2 for double click, ...)
+     * @param action action to be executed
+     */
+    public synchronized void setClickAction(int clicks, Action action) {
+        if (clicks < 1) {
+            throw new IllegalArgumentException(String.format("Number of clicks must be positive, but was %d.", clicks));
+        }
+        if (clicks >= clickActions.length) {
+            clickActions = Arrays.copyOf(clickActions, clicks + 1);
+        }
+        clickActions[clicks] = action;
+    }
+
+    /**
+     * Sets action to be executed when the button is held down for the long press duration.
+     *
+     * The action is executed while the button is still held down. The release does not cause a click then.
+     *
+     * @param longPressAction action to be executed
+     */
+    public synchronized void setLongPressAction(Action longPressAction) {
+        this.longPressAction = longPressAction;
+    }
+
+    /**
+     * Sets the time within which the next click of a multi-click gesture must follow the release of the button.
+     * @param clickWindow click window (default: 300 ms)
+     */
+    public synchronized void setClickWindow(Duration clickWindow) {
+        this.clickWindow = clickWindow;
+    }
+
+    /**
+     * Sets the time the button must be held down for a long press.
+     * @param longPressDuration long press duration (default: 800 ms)
+     */
+    public synchronized void setLongPressDuration(Duration longPressDuration) {
+        this.longPressDuration = longPressDuration;
+    }
+
+}
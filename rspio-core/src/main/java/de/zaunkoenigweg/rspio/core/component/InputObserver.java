@@ -0,0 +1,28 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Observes the events of all pins, as dispatched to their components (e.g. to detect button combinations).
+ * 
+ * Observers are called by the event handling thread(s) of RSPIO right before the component's event handler.
+ * With several dispatcher lanes, they are called by several threads concurrently.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+@FunctionalInterface
+public interface InputObserver {
+
+    /**
+     * Observes an event.
+     * 
+     * This method <u>must</u> terminate as fast as possible, as is called by the event handling thread of RSPIO.
+     * 
+     * @param component component the event is dispatched to
+     * @param state new state of the component's pin
+     * @param timestamp time the GPIO listener received the event (see {@link System#nanoTime()})
+     * @param blockable can be used to block/unblock further event processing.
+     * @return true, if the event must not be dispatched to the component
+     */
+    boolean observe(DigitalInputComponent component, PinState state, long timestamp, Blockable blockable);
+}
@@ -0,0 +1,18 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+/**
+ * Action executed when a key of a {@link MatrixKeypad} is pushed or released.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+@FunctionalInterface
+public interface KeyAction {
+
+    /**
+     * Runs the action.
+     * @param key label of the key
+     * @param pressed true, if the key has been pushed, false, if it has been released
+     * @param blockable can be used to block/unblock further event processing.
+     */
+    void keyChanged(char key, boolean pressed, Blockable blockable);
+}
@@ -0,0 +1,252 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Keypad matrix for Raspberry Pi GPIO Ports (e.g. a 4x4 keypad on 8 pins).
+ * 
+ * The rows are connected to output pins, the columns to input pins pulled up by hardware(!) resistors.
+ * A scan drives one row after the other LOW and reads the columns at once: a column reading LOW has the key
+ * of the driven row pushed. Without diodes, three keys pushed at the corners of a rectangle make the fourth one appear pushed.
+ * 
+ * The keypad is scanned periodically (see {@link ScannedInputComponent}). The state of all keys is kept in a bitmask
+ * and debounced per key: a key changes its state only after the given number of successive scans agree.
+ * Only scans changing the debounced state publish an event, and the {@link KeyAction} is run for each key that changed.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class MatrixKeypad extends AbstractDigitalInputComponent implements ScannedInputComponent {
+
+    /**
+     * Capacity of the ring of debounced states waiting for the dispatcher.
+     */
+    private final static int CHANGES_CAPACITY = 64;
+
+    private final List<Pin> rowPins;
+
+    private final List<Pin> columnPins;
+
+    private final int rows;
+
+    private final int columns;
+
+    private char[] keys;
+
+    private KeyAction action;
+
+    private Duration scanInterval = Duration.ofMillis(10);
+
+    /**
+     * Raw states of the last scans (indexed by scan number modulo debounce scans, only accessed by the scanning thread).
+     */
+    private long[] history = new long[3];
+
+    private long scanCount = 0;
+
+    /**
+     * Debounced state of the keys (bit row * columns + column set if pushed).
+     */
+    private volatile long pressed = 0;
+
+    /**
+     * Debounced states waiting for the dispatcher (written by the scanning thread, read by the dispatcher).
+     */
+    private final long[] changes = new long[CHANGES_CAPACITY];
+    private final AtomicLong changesWritten = new AtomicLong();
+    private final AtomicLong changesRead = new AtomicLong();
+
+    /**
+     * Last state written to {@link #changes} (only accessed by the scanning thread).
+     */
+    private long queued = 0;
+
+    /**
+     * Last state dispatched to the action (only accessed by the dispatcher).
+     */
+    private long dispatched = 0;
+
+    /**
+     * Statistics of the scans.
+     */
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong scanNanos = new AtomicLong();
+
+    private EventPublisher publisher;
+
+    /**
+     * Creates a MatrixKeypad with the keys labelled row by row: 1, 2, 3, ... (or 123A 456B 789C *0#D for a 4x4 keypad).
+     * @param name Name of this component
+     * @param rowPins GPIO Pins of the rows (the keypad is registered with the first one)
+     * @param columnPins GPIO Pins of the columns
+     */
+    public MatrixKeypad(String name, Pin[] rowPins, Pin[] columnPins) {
+        super(name, rowPins[0]);
+        if (columnPins.length > 32 || rowPins.length * columnPins.length > 64) {
+            throw new IllegalArgumentException(String.format("MatrixKeypad supports 32 columns and 64 keys at most, but has %d columns and %d keys.", columnPins.length, rowPins.length * columnPins.length));
+        }
+        this.rowPins = Collections.unmodifiableList(Arrays.asList(rowPins.clone()));
+        this.columnPins = Collections.unmodifiableList(Arrays.asList(columnPins.clone()));
+        this.rows = rowPins.length;
+        this.columns = columnPins.length;
+        this.keys = (rows == 4 && columns == 4 ? "123A456B789C*0#D" : "123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz+-*/").substring(0, rows * columns).toCharArray();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MatrixKeypad '%s' (%dx%d, rows %s, columns %s)", this.getName(), rows, columns, rowPins, columnPins);
+    }
+
+    @Override
+    public List<Pin> getOutputPins() {
+        return rowPins;
+    }
+
+    @Override
+    public List<Pin> getInputPins() {
+        return columnPins;
+    }
+
+    @Override
+    public Duration getScanInterval() {
+        return scanInterval;
+    }
+
+    @Override
+    public void connect(EventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void scan(ScanPort port, long timestamp) {
+        long raw = 0;
+        int columnMask = (int) ((1L << columns) - 1);
+        for (int row = 0; row < rows; row++) {
+            port.drive(row, false);
+            long pushedColumns = ~port.read() & columnMask;
+            port.drive(row, true);
+            raw |= pushedColumns << (row * columns);
+        }
+        history[(int) (scanCount++ % history.length)] = raw;
+
+        long pushedInAll = -1L;
+        long pushedInAny = 0;
+        for (long state : history) {
+            pushedInAll &= state;
+            pushedInAny |= state;
+        }
+        long debounced = (pressed | pushedInAll) & pushedInAny;
+        pressed = debounced;
+
+        // if the dispatcher falls behind, the ring is full and intermediate states are skipped
+        if (debounced != queued && changesWritten.get() - changesRead.get() < CHANGES_CAPACITY) {
+            long index = changesWritten.get();
+            changes[(int) (index % CHANGES_CAPACITY)] = debounced;
+            changesWritten.lazySet(index + 1);
+            queued = debounced;
+            publisher.publish(PinState.LOW, timestamp);
+        }
+        scans.incrementAndGet();
+        scanNanos.addAndGet(System.nanoTime() - timestamp);
+    }
+
+    @Override
+    public void changedToHigh(Blockable blockable) {
+        // only LOW events are published
+    }
+
+    @Override
+    public void changedToLow(Blockable blockable) {
+        long written = changesWritten.get();
+        for (long index = changesRead.get(); index < written; index++) {
+            long state = changes[(int) (index % CHANGES_CAPACITY)];
+            changesRead.lazySet(index + 1);
+            for (long changed = state ^ dispatched; changed != 0; changed &= changed - 1) {
+                int key = Long.numberOfTrailingZeros(changed);
+                if (action != null) {
+                    action.keyChanged(keys[key], (state & (1L << key)) != 0, blockable);
+                }
+            }
+            dispatched = state;
+        }
+    }
+
+    /**
+     * @param key label of a key
+     * @return Is the key pushed (debounced)?
+     */
+    public boolean isPressed(char key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return (pressed & (1L << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of scans since the InputController has been started
+     */
+    public long getScans() {
+        return scans.get();
+    }
+
+    /**
+     * @return total time spent in scans (nanos), e.g. to estimate the CPU cost of the scan interval
+     */
+    public long getScanNanos() {
+        return scanNanos.get();
+    }
+
+    /**
+     * Sets the labels of the keys.
+     * @param keys labels row by row, e.g. "123A456B789C*0#D"
+     */
+    public void setKeys(String keys) {
+        if (keys.length() != rows * columns) {
+            throw new IllegalArgumentException(String.format("MatrixKeypad has %d keys, but %d labels were given.", rows * columns, keys.length()));
+        }
+        this.keys = keys.toCharArray();
+    }
+
+    /**
+     * Sets action to be executed when a key is pushed or released.
+     * 
+     * This action should not block the calling thread too long.
+     * If execution time is considered long, the action should spawn
+     * a new thread of execution.
+     * 
+     * @param action action to be executed
+     */
+    public void setAction(KeyAction action) {
+        this.action = action;
+    }
+
+    /**
+     * Sets the time between two scans. Must be set before the InputController is started.
+     * 
+     * Each scan drives every row once and reads the columns once per row, so the CPU cost grows linearly with the scan rate.
+     * 
+     * @param scanInterval scan interval (default: 10 ms)
+     */
+    public void setScanInterval(Duration scanInterval) {
+        this.scanInterval = scanInterval;
+    }
+
+    /**
+     * Sets the number of successive scans that must agree before a key changes its state. Must be set before the InputController is started.
+     * @param debounceScans number of scans (default: 3, i.e. 30 ms at the default scan interval)
+     */
+    public void setDebounceScans(int debounceScans) {
+        if (debounceScans < 1) {
+            throw new IllegalArgumentException(String.format("Debounce scans must be positive, but was %d.", debounceScans));
+        }
+        this.history = new long[debounceScans];
+    }
+}
@@ -0,0 +1,51 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+/**
+ * {@link DigitalInputComponent} that receives its events as primitives.
+ *
+ * The dispatcher calls {@link #changed(int, boolean, long, Blockable)} instead of
+ * {@link #changedToHigh(Blockable, long)} and {@link #changedToLow(Blockable, long)}, handing in
+ * the pin's address, the new state and the timestamp. Pi4J's event objects never get past the GPIO listener,
+ * so together with {@link de.zaunkoenigweg.rspio.core.input.QueueMode#PACKED} an event is a single long
+ * from the listener to the component.
+ *
+ * The other event handlers forward to {@link #changed(int, boolean, long, Blockable)}, so the component
+ * behaves the same if called through {@link DigitalInputComponent}.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+public interface PrimitiveInputComponent extends DigitalInputComponent {
+
+    /**
+     * Event handler that gets fired if input changes.
+     *
+     * This method <u>must</u> terminate as fast as possible, as is called by
+     * the event handling thread of RSPIO (see {@link #changedToHigh(Blockable)}).
+     *
+     * @param pin address of the pin (see {@link com.pi4j.io.gpio.Pin#getAddress()})
+     * @param high Has the input changed to HIGH?
+     * @param timestamp time the GPIO listener received the event (see {@link System#nanoTime()})
+     * @param blockable can be used to block/unblock further event processing.
+     */
+    public void changed(int pin, boolean high, long timestamp, Blockable blockable);
+
+    @Override
+    public default void changedToHigh(Blockable blockable) {
+        changed(getPin().getAddress(), true, System.nanoTime(), blockable);
+    }
+
+    @Override
+    public default void changedToLow(Blockable blockable) {
+        changed(getPin().getAddress(), false, System.nanoTime(), blockable);
+    }
+
+    @Override
+    public default void changedToHigh(Blockable blockable, long timestamp) {
+        changed(getPin().getAddress(), true, timestamp, blockable);
+    }
+
+    @Override
+    public default void changedToLow(Blockable blockable, long timestamp) {
+        changed(getPin().getAddress(), false, timestamp, blockable);
+    }
+}
@@ -0,0 +1,233 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Pulse counter and frequency meter for Raspberry Pi GPIO Port (e.g. for flow meters or coin acceptors).
+ * 
+ * The counter records the pulses right in the GPIO listener (see {@link DirectInputComponent}):
+ * it increments a counter and stores the pulse's timestamp in a ring of primitive longs, so nothing is allocated per pulse.
+ * Count, frequency and rate can be read at any time without locking. While pulses are recorded concurrently,
+ * frequency and rate may be based on a slightly outdated ring.
+ * 
+ * Optionally, actions are run by the dispatcher when the count reaches a multiple of a threshold,
+ * or when the frequency rises above a threshold. Only these are published to the dispatcher.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class PulseCounter extends AbstractDigitalInputComponent implements DirectInputComponent {
+
+    /**
+     * Counted pulses.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Timestamps of the latest pulses (indexed by pulse number modulo capacity, see {@link System#nanoTime()}).
+     */
+    private AtomicLongArray timestamps = new AtomicLongArray(256);
+
+    private int mask = 255;
+
+    private PinState countedEdge = PinState.LOW;
+
+    private long countThreshold = 0;
+
+    private Action countThresholdAction;
+
+    /**
+     * Minimum time between two pulses for frequencies below the threshold, 0 if there is no frequency threshold.
+     */
+    private long frequencyThresholdNanos = 0;
+
+    private Action frequencyThresholdAction;
+
+    /**
+     * Flag: The frequency is above the threshold.
+     */
+    private final AtomicBoolean aboveFrequencyThreshold = new AtomicBoolean();
+
+    private EventPublisher publisher;
+
+    /**
+     * Creates a PulseCounter.
+     * @param name Name of this component
+     * @param pin GPIO Pin this component is assigned to
+     */
+    public PulseCounter(String name, Pin pin) {
+        super(name, pin);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PulseCounter '%s' (Pin %s)", this.getName(), this.getPin());
+    }
+
+    @Override
+    public List<Pin> getInputPins() {
+        return Collections.singletonList(getPin());
+    }
+
+    @Override
+    public void connect(EventPublisher publisher, TimingWheel timingWheel) {
+        this.publisher = publisher;
+        // the timestamps are indexed by the count, so older ones are never read again
+        this.count.set(0);
+        this.aboveFrequencyThreshold.set(false);
+    }
+
+    @Override
+    public void edge(int input, boolean high, long timestamp) {
+        if (high != countedEdge.isHigh()) {
+            return;
+        }
+        long pulse = count.getAndIncrement();
+        timestamps.set((int) pulse & mask, timestamp);
+        if (countThreshold > 0 && (pulse + 1) % countThreshold == 0) {
+            publisher.publish(PinState.LOW, timestamp);
+        }
+        if (frequencyThresholdNanos > 0 && pulse > 0) {
+            boolean above = timestamp - timestamps.get((int) (pulse - 1) & mask) < frequencyThresholdNanos;
+            if (aboveFrequencyThreshold.getAndSet(above) != above && above) {
+                publisher.publish(PinState.HIGH, timestamp);
+            }
+        }
+    }
+
+    @Override
+    public void changedToHigh(Blockable blockable) {
+        if (frequencyThresholdAction != null) {
+            frequencyThresholdAction.run(blockable);
+        }
+    }
+
+    @Override
+    public void changedToLow(Blockable blockable) {
+        if (countThresholdAction != null) {
+            countThresholdAction.run(blockable);
+        }
+    }
+
+    /**
+     * @return number of pulses counted since the InputController has been started (or, if the counter has been registered
+     *         with a running controller, since its registration)
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the current frequency, derived from the time between the last two pulses.
+     * 
+     * If the last pulse is longer ago than that, the time since the last pulse is used instead,
+     * so the frequency falls off when the pulses stop.
+     * 
+     * @return frequency in Hz, 0 if less than two pulses have been counted
+     */
+    public double getFrequency() {
+        long pulses = count.get();
+        if (pulses < 2) {
+            return 0;
+        }
+        long last = timestamps.get((int) (pulses - 1) & mask);
+        long period = Math.max(last - timestamps.get((int) (pulses - 2) & mask), System.nanoTime() - last);
+        return period <= 0 ? 0 : 1e9 / period;
+    }
+
+    /**
+     * Gets the rate of pulses within the given window.
+     * 
+     * If the window holds more pulses than the ring (see {@link #setCapacity(int)}), the rate is
+     * measured over the time covered by the ring.
+     * 
+     * @param window window (ending now)
+     * @return rate in pulses per second
+     */
+    public double getRate(Duration window) {
+        long now = System.nanoTime();
+        long windowNanos = window.toNanos();
+        long pulses = count.get();
+        int capacity = mask + 1;
+        long inWindow = 0;
+        long oldest = now;
+        for (long pulse = pulses - 1; pulse >= 0 && inWindow < capacity; pulse--) {
+            long timestamp = timestamps.get((int) pulse & mask);
+            if (now - timestamp > windowNanos) {
+                return inWindow * 1e9 / windowNanos;
+            }
+            inWindow++;
+            oldest = timestamp;
+        }
+        if (inWindow < capacity) {
+            return inWindow * 1e9 / windowNanos;
+        }
+        return now > oldest ? inWindow * 1e9 / (now - oldest) : 0;
+    }
+
+    /**
+     * Sets the edge that counts as pulse. Must be set before the InputController is started.
+     * @param countedEdge state of the pin after the edge (default: {@link PinState#LOW}, i.e. falling edges)
+     */
+    public void setCountedEdge(PinState countedEdge) {
+        this.countedEdge = countedEdge;
+    }
+
+    /**
+     * Sets the number of timestamps kept for frequency and rate. Must be set before the InputController is started.
+     * @param capacity capacity, rounded up to the next power of two (default: 256)
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException(String.format("Capacity must be at least 2, but was %d.", capacity));
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.timestamps = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Sets action to be executed each time the count reaches a multiple of the threshold (e.g. a liter or a coin value).
+     * 
+     * This action should not block the calling thread too long.
+     * If execution time is considered long, the action should spawn
+     * a new thread of execution.
+     * 
+     * @param countThreshold threshold (pulses)
+     * @param action action to be executed
+     */
+    public void setCountThresholdAction(long countThreshold, Action action) {
+        if (countThreshold < 1) {
+            throw new IllegalArgumentException(String.format("Count threshold must be positive, but was %d.", countThreshold));
+        }
+        this.countThreshold = countThreshold;
+        this.countThresholdAction = action;
+    }
+
+    /**
+     * Sets action to be executed when the frequency rises above the threshold.
+     * The action is run again after the frequency has fallen below the threshold (as measured at a pulse) and risen again.
+     * 
+     * @param frequencyThreshold threshold in Hz
+     * @param action action to be executed
+     */
+    public void setFrequencyThresholdAction(double frequencyThreshold, Action action) {
+        if (frequencyThreshold <= 0) {
+            throw new IllegalArgumentException(String.format("Frequency threshold must be positive, but was %f.", frequencyThreshold));
+        }
+        this.frequencyThresholdNanos = (long) (1e9 / frequencyThreshold);
+        this.frequencyThresholdAction = action;
+    }
+}
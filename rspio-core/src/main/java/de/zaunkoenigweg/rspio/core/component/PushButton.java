@@ -17,6 +17,8 @@ import com.pi4j.io.gpio.Pin;
 public class PushButton extends AbstractDigitalInputComponent {
     
     private Action action;
+
+    private AsyncAction asyncAction;
     
     public PushButton(String name, Pin pin) {
         super(name, pin);
@@ -37,6 +39,9 @@ public class PushButton extends AbstractDigitalInputComponent {
         if(action!=null) {
             action.run(blockable);
         }
+        if(asyncAction!=null) {
+            runAsync(asyncAction);
+        }
     }
 
     /**
@@ -52,4 +57,15 @@ public class PushButton extends AbstractDigitalInputComponent {
         this.action = action;
     }
 
+    /**
+     * Sets action to be executed asynchronously when pushed.
+     * 
+     * See {@link #setBlockedWhileRunning(boolean)} to ignore the button until the action has completed.
+     * 
+     * @param asyncAction action to be executed when button is pushed
+     */
+    public void setAsyncAction(AsyncAction asyncAction) {
+        this.asyncAction = asyncAction;
+    }
+
 }
@@ -1,7 +1,6 @@
 package de.zaunkoenigweg.rspio.core.component;
 
 import java.time.Duration;
-import java.time.Instant;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -17,6 +16,8 @@ import com.pi4j.io.gpio.Pin;
  * A Release-Button is neither aware of its state nor does it fire
  * events when being pushed.
  * 
+ * The push duration is measured between the GPIO events, so delays in event processing do not skew it.
+ * 
  * @author mail@nikolaus-winter.de
  *
  */
@@ -25,10 +26,20 @@ public class ReleaseButton extends AbstractDigitalInputComponent {
     private final static Log LOG = LogFactory.getLog(ReleaseButton.class);
 
     private Action action;
+
+    private AsyncAction asyncAction;
     
     private Duration minimumPushDuration;
     
-    private Instant pushedInstant;
+    /**
+     * Time the button was pushed (see {@link System#nanoTime()}).
+     */
+    private long pushedTimestamp;
+
+    /**
+     * Flag: Has the button been pushed since the last release?
+     */
+    private boolean pushed = false;
     
     public ReleaseButton(String name, Pin pin) {
         this(name, pin, null);
@@ -46,21 +57,37 @@ public class ReleaseButton extends AbstractDigitalInputComponent {
 
     @Override
     public void changedToHigh(Blockable blockable) {
-        if(pushedInstant!=null) {
-            if(pushedInstant.plus(minimumPushDuration).isAfter(Instant.now())) {
+        changedToHigh(blockable, System.nanoTime());
+    }
+
+    @Override
+    public void changedToHigh(Blockable blockable, long timestamp) {
+        if(pushed && minimumPushDuration!=null) {
+            if(timestamp - pushedTimestamp < minimumPushDuration.toNanos()) {
                 LOG.info(String.format("ReleaseButton for Pin %s released too early.", this.getPin()));
+                pushed = false;
                 return;
             }
         }
+        pushed = false;
         if(action!=null) {
             action.run(blockable);
         }
+        if(asyncAction!=null) {
+            runAsync(asyncAction);
+        }
     }
 
     @Override
     public void changedToLow(Blockable blockable) {
+        changedToLow(blockable, System.nanoTime());
+    }
+
+    @Override
+    public void changedToLow(Blockable blockable, long timestamp) {
         LOG.info(String.format("ReleaseButton for Pin %s pushed.", this.getPin()));
-        this.pushedInstant = Instant.now();
+        this.pushedTimestamp = timestamp;
+        this.pushed = true;
     }
 
     /**
@@ -76,4 +103,15 @@ public class ReleaseButton extends AbstractDigitalInputComponent {
         this.action = action;
     }
 
+    /**
+     * Sets action to be executed asynchronously when released.
+     * 
+     * See {@link #setBlockedWhileRunning(boolean)} to ignore the button until the action has completed.
+     * 
+     * @param asyncAction action to be executed when button is released
+     */
+    public void setAsyncAction(AsyncAction asyncAction) {
+        this.asyncAction = asyncAction;
+    }
+
 }
@@ -0,0 +1,212 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Quadrature rotary encoder for Raspberry Pi GPIO Ports.
+ * 
+ * The encoder's contacts A and B are connected to two pins, pulled up by hardware(!) resistors.
+ * Both are HIGH at rest (in a detent).
+ * 
+ * Rotary encoders produce thousands of edges per second, so the encoder decodes the edges right in the GPIO listener
+ * (see {@link DirectInputComponent}): each edge is looked up in a transition table and added to a lock-free counter.
+ * Only the position is published to the dispatcher, at most once per publish interval, and the
+ * {@link RotationAction} is run with the position change since its last run.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class RotaryEncoder extends AbstractDigitalInputComponent implements DirectInputComponent {
+
+    /**
+     * Counter steps indexed by previous and new levels of A and B (<code>(AB before &lt;&lt; 2) | AB after</code>).
+     * Transitions changing no level or (after a missed edge) both levels count 0.
+     */
+    private final static int[] STEPS = {
+         0, -1,  1,  0,
+         1,  0,  0, -1,
+        -1,  0,  0,  1,
+         0,  1, -1,  0
+    };
+
+    private final List<Pin> inputPins;
+
+    private RotationAction action;
+
+    private int stepsPerDetent = 4;
+
+    private long publishIntervalNanos = Duration.ofMillis(20).toNanos();
+
+    /**
+     * Levels of A (bit 1) and B (bit 0), read from the pins when the encoder is attached.
+     */
+    private final AtomicInteger levels = new AtomicInteger(0b11);
+
+    /**
+     * Counted steps (4 per full quadrature cycle).
+     */
+    private final AtomicLong steps = new AtomicLong();
+
+    /**
+     * Time of the last published event (see {@link System#nanoTime()}).
+     */
+    private final AtomicLong lastPublished = new AtomicLong(Long.MIN_VALUE / 2);
+
+    /**
+     * Flag: {@link #publishTimeout} is scheduled.
+     */
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+
+    /**
+     * Position passed to the last run of the action (only accessed by the dispatcher).
+     */
+    private long dispatchedPosition = 0;
+
+    private EventPublisher publisher;
+
+    private Timeout publishTimeout;
+
+    /**
+     * Creates a RotaryEncoder.
+     * @param name Name of this component
+     * @param pinA GPIO Pin of contact A (the encoder is registered with this one)
+     * @param pinB GPIO Pin of contact B
+     */
+    public RotaryEncoder(String name, Pin pinA, Pin pinB) {
+        super(name, pinA);
+        this.inputPins = Collections.unmodifiableList(Arrays.asList(pinA, pinB));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RotaryEncoder '%s' (Pins %s/%s)", this.getName(), inputPins.get(0), inputPins.get(1));
+    }
+
+    @Override
+    public List<Pin> getInputPins() {
+        return inputPins;
+    }
+
+    @Override
+    public void connect(EventPublisher publisher, TimingWheel timingWheel) {
+        this.publisher = publisher;
+        this.publishTimeout = timingWheel.newTimeout(this::publishDelayed);
+    }
+
+    @Override
+    public void initialize(int input, boolean high) {
+        updateLevels(input, high);
+    }
+
+    @Override
+    public void edge(int input, boolean high, long timestamp) {
+        int step = STEPS[updateLevels(input, high)];
+        if (step == 0) {
+            return;
+        }
+        steps.addAndGet(step);
+
+        long last = lastPublished.get();
+        if (timestamp - last >= publishIntervalNanos) {
+            // a concurrent edge winning the race publishes this step, too
+            if (lastPublished.compareAndSet(last, timestamp)) {
+                publisher.publish(PinState.LOW, timestamp);
+            }
+        } else if (publishScheduled.compareAndSet(false, true)) {
+            publishTimeout.schedule(last + publishIntervalNanos - timestamp, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sets the level of A or B.
+     * @param input 0 for A, 1 for B
+     * @param high new level
+     * @return levels before and after (index of {@link #STEPS})
+     */
+    private int updateLevels(int input, boolean high) {
+        int bit = input == 0 ? 0b10 : 0b01;
+        int before;
+        int after;
+        do {
+            before = levels.get();
+            after = high ? before | bit : before & ~bit;
+        } while (!levels.compareAndSet(before, after));
+        return (before << 2) | after;
+    }
+
+    private void publishDelayed() {
+        publishScheduled.set(false);
+        long timestamp = System.nanoTime();
+        lastPublished.set(timestamp);
+        publisher.publish(PinState.LOW, timestamp);
+    }
+
+    @Override
+    public void changedToHigh(Blockable blockable) {
+        // only LOW events are published
+    }
+
+    @Override
+    public void changedToLow(Blockable blockable) {
+        long position = getPosition();
+        long delta = position - dispatchedPosition;
+        if (delta == 0) {
+            return;
+        }
+        dispatchedPosition = position;
+        if (action != null) {
+            action.rotated(position, delta, blockable);
+        }
+    }
+
+    /**
+     * @return current position of the encoder (in detents, positive: clockwise)
+     */
+    public long getPosition() {
+        return Math.floorDiv(steps.get(), stepsPerDetent);
+    }
+
+    /**
+     * Sets action to be executed when the encoder has been turned.
+     * 
+     * This action should not block the calling thread too long.
+     * If execution time is considered long, the action should spawn
+     * a new thread of execution.
+     * 
+     * @param action action to be executed
+     */
+    public void setAction(RotationAction action) {
+        this.action = action;
+    }
+
+    /**
+     * Sets the number of quadrature steps from one detent to the next. Must be set before the InputController is started.
+     * @param stepsPerDetent steps (default: 4, i.e. a full cycle per detent)
+     */
+    public void setStepsPerDetent(int stepsPerDetent) {
+        if (stepsPerDetent < 1) {
+            throw new IllegalArgumentException(String.format("Steps per detent must be positive, but was %d.", stepsPerDetent));
+        }
+        this.stepsPerDetent = stepsPerDetent;
+    }
+
+    /**
+     * Sets the minimum time between two position events. Must be set before the InputController is started.
+     * @param publishInterval publish interval (default: 20 ms)
+     */
+    public void setPublishInterval(Duration publishInterval) {
+        this.publishIntervalNanos = publishInterval.toNanos();
+    }
+}
@@ -0,0 +1,18 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+/**
+ * Action executed when a {@link RotaryEncoder} has been turned.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+@FunctionalInterface
+public interface RotationAction {
+
+    /**
+     * Runs the action.
+     * @param position position of the encoder (in detents)
+     * @param delta change of the position since the last run (positive: clockwise)
+     * @param blockable can be used to block/unblock further event processing.
+     */
+    void rotated(long position, long delta, Blockable blockable);
+}
@@ -0,0 +1,22 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+/**
+ * GPIO pins of a {@link ScannedInputComponent}, as provisioned by the InputController.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public interface ScanPort {
+
+    /**
+     * Sets an output pin.
+     * @param output index of the pin in {@link ScannedInputComponent#getOutputPins()}
+     * @param high new state of the pin
+     */
+    void drive(int output, boolean high);
+
+    /**
+     * Reads all input pins at once.
+     * @return levels of the pins, bit i set if input i (see {@link ScannedInputComponent#getInputPins()}) is HIGH
+     */
+    int read();
+}
@@ -0,0 +1,52 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.pi4j.io.gpio.Pin;
+
+/**
+ * Digital input component whose pins are scanned periodically instead of raising events (e.g. a keypad matrix).
+ * 
+ * The InputController provisions the component's output and input pins and calls {@link #scan(ScanPort, long)}
+ * at the component's scan interval, on the thread of its timer. The component publishes the events its event handlers
+ * ({@link #changedToHigh(Blockable, long)}, {@link #changedToLow(Blockable, long)}) must see (see {@link EventPublisher}).
+ * 
+ * All pins are reserved for this component. The component is registered with one of them ({@link #getPin()}).
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public interface ScannedInputComponent extends DigitalInputComponent {
+
+    /**
+     * @return output pins driven by the scan, indexed as passed to {@link ScanPort#drive(int, boolean)} (initially HIGH)
+     */
+    public List<Pin> getOutputPins();
+
+    /**
+     * @return input pins read by the scan, indexed as in {@link ScanPort#read()} (at most 32)
+     */
+    public List<Pin> getInputPins();
+
+    /**
+     * @return time between two scans
+     */
+    public Duration getScanInterval();
+
+    /**
+     * Connects this component to the dispatcher. Called when the InputController is started, before the first scan.
+     * 
+     * @param publisher queues events of this component
+     */
+    public void connect(EventPublisher publisher);
+
+    /**
+     * Scans the pins.
+     * 
+     * This method is called by the timer thread of the InputController. It <u>must</u> not block.
+     * 
+     * @param port provisioned pins
+     * @param timestamp time of the scan (see {@link System#nanoTime()})
+     */
+    public void scan(ScanPort port, long timestamp);
+}
@@ -0,0 +1,232 @@
+package de.zaunkoenigweg.rspio.core.component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.input.InputController;
+
+/**
+ * Recognizes sequences of button pushes (e.g. RED RED BLUE GREEN to enter a maintenance mode).
+ * 
+ * A sequence is given by the names of the components pushed (i.e. whose pin changed to LOW, see {@link PushButton}).
+ * The recognizer observes the events of all pins (see {@link InputObserver}), it does not hide them from the components.
+ * 
+ * All sequences are compiled into one automaton (Aho-Corasick), whose state is advanced by a table lookup on each push,
+ * so recognizing costs O(1) per push, regardless of the number and length of the sequences.
+ * Sequences may overlap: RED RED RED contains the sequence RED RED twice.
+ * A push of a component that does not occur in any sequence starts over, as does a push
+ * following the previous one after more than the inter-press timeout.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class SequenceRecognizer implements InputObserver {
+
+    private final static Log LOG = LogFactory.getLog(SequenceRecognizer.class);
+
+    private static class Sequence {
+        final String name;
+        final String[] components;
+        final Action action;
+
+        Sequence(String name, String[] components, Action action) {
+            this.name = name;
+            this.components = components;
+            this.action = action;
+        }
+    }
+
+    private final static Sequence[] NO_SEQUENCES = new Sequence[0];
+
+    private final String name;
+
+    private Duration timeout = Duration.ofSeconds(2);
+
+    private final List<Sequence> sequences = new ArrayList<>();
+
+    /**
+     * Symbol of each component occurring in a sequence.
+     */
+    private final Map<String, Integer> symbols = new HashMap<>();
+
+    /**
+     * Transitions of the automaton (indexed by state and symbol), null if it must be compiled.
+     */
+    private int[][] transitions;
+
+    /**
+     * Sequences recognized on entering a state (indexed by state).
+     */
+    private Sequence[][] recognized;
+
+    private int state = 0;
+
+    /**
+     * Time of the last push (see {@link System#nanoTime()}).
+     */
+    private long lastPushTimestamp;
+
+    /**
+     * The recognizer registers itself to this controller after its construction.
+     */
+    @Autowired
+    protected InputController inputController;
+
+    /**
+     * Creates a SequenceRecognizer.
+     * @param name Name of this recognizer
+     */
+    public SequenceRecognizer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * After construction this recognizer registers itself to the InputController
+     */
+    @PostConstruct
+    public void register() {
+        if(inputController==null || !inputController.registerObserver(this)) {
+            String errorMessage = String.format("SequenceRecognizer '%s' could not be registered.", this.name);
+            LOG.error(errorMessage);
+            throw new BeanCreationException(errorMessage);
+        }
+    }
+
+    /**
+     * Adds a sequence.
+     * @param name name of the sequence
+     * @param action action to be executed when the sequence has been pushed
+     * @param components names of the components to be pushed one after another
+     */
+    public synchronized void addSequence(String name, Action action, String... components) {
+        if (components.length == 0) {
+            throw new IllegalArgumentException(String.format("Sequence '%s' is empty.", name));
+        }
+        sequences.add(new Sequence(name, components.clone(), action));
+        for (String component : components) {
+            if (!symbols.containsKey(component)) {
+                symbols.put(component, symbols.size());
+            }
+        }
+        transitions = null;
+        LOG.info(String.format("Sequence '%s' (%s) added to SequenceRecognizer '%s'.", name, String.join(" ", components), this.name));
+    }
+
+    /**
+     * Sets the maximum time between two pushes of a sequence.
+     * @param timeout inter-press timeout (default: 2 s)
+     */
+    public synchronized void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public boolean observe(DigitalInputComponent component, PinState state, long timestamp, Blockable blockable) {
+        if (state != PinState.LOW) {
+            return false;
+        }
+        Sequence[] sequences;
+        synchronized (this) {
+            if (transitions == null) {
+                compile();
+            }
+            if (timestamp - lastPushTimestamp > timeout.toNanos()) {
+                this.state = 0;
+            }
+            lastPushTimestamp = timestamp;
+            Integer symbol = symbols.get(component.getName());
+            this.state = symbol != null ? transitions[this.state][symbol] : 0;
+            sequences = recognized[this.state];
+        }
+        for (Sequence sequence : sequences) {
+            LOG.info(String.format("Sequence '%s' of SequenceRecognizer '%s' recognized.", sequence.name, this.name));
+            sequence.action.run(blockable);
+        }
+        return false;
+    }
+
+    /**
+     * Compiles the sequences into the automaton: a trie of the sequences, whose missing transitions
+     * follow the failure links, i.e. lead to the state of the longest suffix that is a prefix of a sequence.
+     */
+    private void compile() {
+        int symbolCount = symbols.size();
+        List<int[]> trie = new ArrayList<>();
+        List<List<Sequence>> outputs = new ArrayList<>();
+        trie.add(newState(symbolCount));
+        outputs.add(new ArrayList<>());
+        for (Sequence sequence : sequences) {
+            int current = 0;
+            for (String component : sequence.components) {
+                int symbol = symbols.get(component);
+                if (trie.get(current)[symbol] < 0) {
+                    trie.get(current)[symbol] = trie.size();
+                    trie.add(newState(symbolCount));
+                    outputs.add(new ArrayList<>());
+                }
+                current = trie.get(current)[symbol];
+            }
+            outputs.get(current).add(sequence);
+        }
+
+        int[] failure = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            if (root[symbol] < 0) {
+                root[symbol] = 0;
+            } else {
+                failure[root[symbol]] = 0;
+                queue.add(root[symbol]);
+            }
+        }
+        // breadth first, so the failure state of each state has been completed before
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            outputs.get(current).addAll(outputs.get(failure[current]));
+            int[] currentTransitions = trie.get(current);
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int next = currentTransitions[symbol];
+                if (next < 0) {
+                    currentTransitions[symbol] = trie.get(failure[current])[symbol];
+                } else {
+                    failure[next] = trie.get(failure[current])[symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        transitions = trie.toArray(new int[trie.size()][]);
+        recognized = new Sequence[trie.size()][];
+        for (int i = 0; i < recognized.length; i++) {
+            recognized[i] = outputs.get(i).isEmpty() ? NO_SEQUENCES : outputs.get(i).toArray(NO_SEQUENCES);
+        }
+        state = 0;
+        LOG.info(String.format("SequenceRecognizer '%s' compiled %d sequence(s) into %d states.", this.name, sequences.size(), transitions.length));
+    }
+
+    private static int[] newState(int symbolCount) {
+        int[] state = new int[symbolCount];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SequenceRecognizer '%s'", this.name);
+    }
+}
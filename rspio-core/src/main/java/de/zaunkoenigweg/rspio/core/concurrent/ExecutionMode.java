@@ -0,0 +1,22 @@
+package de.zaunkoenigweg.rspio.core.concurrent;
+
+/**
+ * Kind of threads RSPIO runs its work on (see {@link Threads}).
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public enum ExecutionMode {
+
+    /**
+     * Platform threads, each with a stack of its own.
+     */
+    PLATFORM,
+
+    /**
+     * Virtual threads, mounted on a few carrier threads only while they run.
+     * Saves the stack memory of threads that mostly wait, e.g. for an audio process.
+     * 
+     * Requires Java 21 or newer.
+     */
+    VIRTUAL;
+}
@@ -0,0 +1,121 @@
+package de.zaunkoenigweg.rspio.core.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Creates the threads of RSPIO according to the {@link ExecutionMode}.
+ * 
+ * The mode is taken from the system property <code>rspio.executionMode</code> (default: {@link ExecutionMode#PLATFORM})
+ * or set by {@link #setExecutionMode(ExecutionMode)} before RSPIO is started.
+ * {@link ExecutionMode#VIRTUAL} is only available on Java 21 or newer. Otherwise platform threads are used.
+ * 
+ * Threads that spin or hold monitors while waiting (e.g. the timer) should stay platform threads,
+ * as they would pin their carrier thread.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public final class Threads {
+
+    private final static Log LOG = LogFactory.getLog(Threads.class);
+
+    private static volatile ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+    /**
+     * Runs blocking work handed off by the timer (see {@link #background()}).
+     */
+    private final static ThreadPoolExecutor BACKGROUND = createBackgroundExecutor();
+
+    static {
+        String property = System.getProperty("rspio.executionMode");
+        if (property != null) {
+            setExecutionMode(ExecutionMode.valueOf(property));
+        }
+    }
+
+    private Threads() {
+    }
+
+    public static ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Sets the kind of threads created from now on.
+     * @param executionMode execution mode, {@link ExecutionMode#VIRTUAL} falls back to {@link ExecutionMode#PLATFORM} before Java 21
+     */
+    public static void setExecutionMode(ExecutionMode executionMode) {
+        if (executionMode == ExecutionMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            LOG.warn(String.format("Virtual threads are not supported by Java %s. Using platform threads.", System.getProperty("java.version")));
+            executionMode = ExecutionMode.PLATFORM;
+        }
+        Threads.executionMode = executionMode;
+        LOG.info(String.format("Execution mode %s.", executionMode));
+    }
+
+    /**
+     * Creates an (unstarted) thread of the current execution mode.
+     * 
+     * Like <code>new Thread(task, name)</code>, a platform thread inherits the daemon status of the current thread,
+     * whereas virtual threads are always daemon threads.
+     * 
+     * @param name name of the thread
+     * @param task task of the thread
+     * @return thread
+     */
+    public static Thread newThread(String name, Runnable task) {
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            return VirtualThreads.newThread(name, task);
+        }
+        return new Thread(task, name);
+    }
+
+    /**
+     * Creates and starts a thread of the current execution mode.
+     * @param name name of the thread
+     * @param task task of the thread
+     * @return thread
+     */
+    public static Thread start(String name, Runnable task) {
+        Thread thread = newThread(name, task);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Gets the shared executor for blocking work that must not run on the timer thread, e.g. pausing an audio track
+     * when its auto-pause timeout expires. The work is run one after the other by a single daemon thread,
+     * which ends when idle.
+     * @return executor
+     */
+    public static Executor background() {
+        return BACKGROUND;
+    }
+
+    private static ThreadPoolExecutor createBackgroundExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory("rspio-background-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates a factory for daemon threads of the current execution mode, e.g. for an executor.
+     * @param prefix prefix of the thread names, followed by a running number
+     * @return thread factory
+     */
+    public static ThreadFactory factory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return task -> {
+            Thread thread = newThread(prefix + threadCount.getAndIncrement(), task);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package de.zaunkoenigweg.rspio.core.concurrent;
+
+/**
+ * Access to virtual threads.
+ * 
+ * This is the variant for Java versions without virtual threads. The jar contains a variant for Java 21
+ * (see <code>src/main/java21</code>), which is picked by the JVM as the jar is a multi-release jar.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates a platform thread, as there are no virtual threads.
+     * @param name name of the thread
+     * @param task task of the thread
+     * @return unstarted platform thread
+     */
+    static Thread newThread(String name, Runnable task) {
+        return new Thread(task, name);
+    }
+}
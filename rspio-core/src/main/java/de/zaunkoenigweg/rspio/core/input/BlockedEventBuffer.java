@@ -0,0 +1,92 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Events of one channel kept while the channel is blocked (see {@link BlockedEventPolicy}).
+ * 
+ * Events are stored in a ring of longs (see {@link InputChannel#encode(PinState, long)}), so keeping an event does not allocate.
+ * The buffer is only accessed by the thread of the channel's lane and therefore needs no synchronization.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class BlockedEventBuffer {
+
+    private final long[] events;
+
+    /**
+     * Flag: Only keep the latest event (see {@link BlockedEventPolicy#KEEP_LATEST}).
+     */
+    private final boolean keepLatest;
+
+    /**
+     * Index of the oldest event.
+     */
+    private int head = 0;
+
+    /**
+     * Number of events in the buffer.
+     */
+    private int size = 0;
+
+    /**
+     * Creates buffer.
+     * @param policy {@link BlockedEventPolicy#BUFFER} or {@link BlockedEventPolicy#KEEP_LATEST}
+     * @param capacity capacity for {@link BlockedEventPolicy#BUFFER}
+     */
+    BlockedEventBuffer(BlockedEventPolicy policy, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Capacity must be positive, but was %d.", capacity));
+        }
+        this.keepLatest = policy == BlockedEventPolicy.KEEP_LATEST;
+        this.events = new long[keepLatest ? 1 : capacity];
+    }
+
+    /**
+     * Keeps an event.
+     * @param state state
+     * @param timestamp timestamp (see {@link System#nanoTime()})
+     * @return false, if the buffer is full (for {@link BlockedEventPolicy#KEEP_LATEST} the kept event is replaced instead)
+     */
+    boolean store(PinState state, long timestamp) {
+        long event = InputChannel.encode(state, timestamp);
+        if (keepLatest) {
+            events[0] = event;
+            size = 1;
+            return true;
+        }
+        if (size == events.length) {
+            return false;
+        }
+        events[(head + size) % events.length] = event;
+        size++;
+        return true;
+    }
+
+    /**
+     * Takes the oldest event out of the buffer.
+     * @param channel channel of the buffer
+     * @param target container the event is copied into
+     * @return false, if the buffer is empty
+     */
+    boolean poll(InputChannel channel, Event target) {
+        if (size == 0) {
+            return false;
+        }
+        long event = events[head];
+        head = (head + 1) % events.length;
+        size--;
+        target.channel = channel;
+        target.state = InputChannel.decodeState(event);
+        target.timestamp = InputChannel.decodeTimestamp(event);
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean isFull() {
+        return size == events.length;
+    }
+}
@@ -0,0 +1,32 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * What the dispatcher does with the events of a component while the component is blocked
+ * (see {@link de.zaunkoenigweg.rspio.core.component.Blockable}).
+ * 
+ * Kept events are replayed in order, with their original timestamps, once the block has been released.
+ * Discarded, kept and lost events are counted per pin, see {@link PinStatistics}.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public enum BlockedEventPolicy {
+
+    /**
+     * Blocked events are discarded.
+     */
+    DISCARD,
+
+    /**
+     * Blocked events are kept in a bounded buffer. Events that do not fit into the buffer are lost.
+     * 
+     * Use it for components that must not miss a single edge (e.g. counters, coin slots).
+     */
+    BUFFER,
+
+    /**
+     * Only the latest blocked event is kept.
+     * 
+     * Use it for components that only care about the state their pin has when the block is released.
+     */
+    KEEP_LATEST;
+}
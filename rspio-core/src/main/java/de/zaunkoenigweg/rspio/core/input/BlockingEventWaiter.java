@@ -0,0 +1,58 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link EventWaiter} for {@link WaitStrategy#BLOCKING}: parks the dispatcher thread until a producer unparks it.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class BlockingEventWaiter implements EventWaiter {
+
+    /**
+     * Upper limit for one park, just to be safe against lost signals.
+     */
+    private final static long MAX_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Consumer thread, if it is (about to be) parked.
+     */
+    private volatile Thread waitingThread;
+
+    @Override
+    public void await(BooleanSupplier hasWork) {
+        park(hasWork);
+    }
+
+    /**
+     * Parks the current thread unless there is work to do.
+     * @param hasWork tells whether there is work to do
+     */
+    protected void park(BooleanSupplier hasWork) {
+        waitingThread = Thread.currentThread();
+        try {
+            // check again after publishing the waiting thread, otherwise a signal might get lost
+            if (!hasWork.getAsBoolean()) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        } finally {
+            waitingThread = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The producer must have published its event with a volatile write before, so that either the producer sees the
+     * waiting thread or the consumer sees the event (a release store like {@code lazySet} does not prevent both from missing each other).
+     */
+    @Override
+    public void signal() {
+        Thread thread = waitingThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link EventWaiter} for {@link WaitStrategy#BUSY_SPIN}: never gives up the CPU.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class BusySpinEventWaiter implements EventWaiter {
+
+    /**
+     * Number of checks before returning to the caller, which then checks whether to stop.
+     */
+    private final static int SPINS = 100000;
+
+    @Override
+    public void await(BooleanSupplier hasWork) {
+        for (int i = 0; i < SPINS; i++) {
+            if (hasWork.getAsBoolean()) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void signal() {
+        // nothing to wake up, the dispatcher thread never sleeps
+    }
+}
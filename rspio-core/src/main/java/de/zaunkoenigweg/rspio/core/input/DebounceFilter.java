@@ -0,0 +1,86 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.time.Duration;
+
+/**
+ * Debounces mechanical contacts.
+ * 
+ * The first edge passes immediately. For the following debounce window, all edges are suppressed.
+ * When the window is over, the filter checks whether the pin has settled in a different state than the one passed,
+ * and if so passes that state as well (and starts a new window). So reaction is instant, and the final state is never lost.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class DebounceFilter extends InputFilter {
+
+    private final long windowNanos;
+
+    /**
+     * Flag: Has any edge been passed yet?
+     */
+    private boolean initialized;
+
+    /**
+     * State passed last.
+     */
+    private boolean passed;
+
+    /**
+     * Latest state received.
+     */
+    private boolean latest;
+
+    /**
+     * Flag: Is the debounce window open?
+     */
+    private boolean locked;
+
+    /**
+     * Creates filter.
+     * @param window debounce window, e.g. 20ms
+     */
+    public DebounceFilter(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    protected void edge(boolean high, long timestamp) {
+        latest = high;
+        if (locked) {
+            suppressed();
+            return;
+        }
+        if (initialized && high == passed) {
+            suppressed();
+            return;
+        }
+        pass(high, timestamp);
+    }
+
+    @Override
+    protected void timeout(long now) {
+        locked = false;
+        if (latest != passed) {
+            pass(latest, now);
+        }
+    }
+
+    private void pass(boolean high, long timestamp) {
+        initialized = true;
+        passed = high;
+        locked = true;
+        schedule(windowNanos);
+        emit(high, timestamp);
+    }
+
+    @Override
+    protected void reset() {
+        initialized = false;
+        locked = false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DebounceFilter (%d ms)", windowNanos / 1000000);
+    }
+}
@@ -0,0 +1,426 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.concurrent.Threads;
+
+/**
+ * One lane of the {@link EventDispatcher}: an event queue and the thread that dispatches its events.
+ *
+ * All events of a pin are handled by the same lane, so they are dispatched in order.
+ * Events of pins in different lanes are dispatched in parallel.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+class DispatchLane {
+
+    private final static Log LOG = LogFactory.getLog(DispatchLane.class);
+
+    private final EventDispatcher dispatcher;
+
+    private final int index;
+
+    private final static Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * Event Queues, one per {@link Priority} (indexed by ordinal).
+     */
+    private final EventQueue[] eventQueues;
+
+    /**
+     * Number of events each priority class may still be served in the current round.
+     */
+    private final int[] budgets;
+
+    /**
+     * What to do with events that do not fit into the queue.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Maximum number of events drained from the queue at once.
+     */
+    private final int batchSize;
+
+    /**
+     * Lets the thread wait for events.
+     */
+    private final EventWaiter waiter;
+
+    /**
+     * Tells the waiter whether there is work to do.
+     */
+    private final BooleanSupplier hasWork = this::hasWork;
+
+    /**
+     * Thread that processes/dispatches events.
+     */
+    private final Thread thread;
+
+    /**
+     * Channels assigned to this lane.
+     */
+    private volatile InputChannel[] channels = new InputChannel[0];
+
+    /**
+     * Flag: Some channel has a pending event (see {@link OverflowPolicy#COALESCE_PER_PIN}).
+     */
+    private volatile boolean pendingEvents = false;
+
+    /**
+     * Flag: A block has been released, so kept events may have to be replayed (see {@link BlockedEventPolicy}).
+     */
+    private volatile boolean replayRequested = false;
+
+    /**
+     * Reusable container for replayed events (only accessed by the lane's thread).
+     */
+    private final Event replayedEvent = new Event();
+
+    DispatchLane(EventDispatcher dispatcher, int index, QueueMode queueMode, int queueCapacity, OverflowPolicy overflowPolicy, int batchSize, WaitStrategy waitStrategy) {
+        this.dispatcher = dispatcher;
+        this.index = index;
+        this.eventQueues = new EventQueue[PRIORITIES.length];
+        this.budgets = new int[PRIORITIES.length];
+        for (Priority priority : PRIORITIES) {
+            eventQueues[priority.ordinal()] = queueMode.createQueue(queueCapacity, dispatcher);
+            budgets[priority.ordinal()] = priority.getWeight();
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.waiter = waitStrategy.createWaiter();
+        String threadName = "rspio-dispatcher-" + index;
+        // a spinning lane would occupy the carrier thread of a virtual thread
+        this.thread = waitStrategy == WaitStrategy.BLOCKING ? Threads.newThread(threadName, this::dispatch) : new Thread(this::dispatch, threadName);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Assigns a channel to this lane.
+     * @param channel channel
+     */
+    synchronized void addChannel(InputChannel channel) {
+        InputChannel[] newChannels = Arrays.copyOf(channels, channels.length + 1);
+        newChannels[channels.length] = channel;
+        channels = newChannels;
+    }
+
+    /**
+     * Removes a channel from this lane. Its events still queued are skipped (see {@link InputChannel#removed}).
+     * @param channel channel
+     */
+    synchronized void removeChannel(InputChannel channel) {
+        channels = Arrays.stream(channels).filter(other -> other != channel).toArray(InputChannel[]::new);
+    }
+
+    /**
+     * Adds event to this lane's queue, applying the {@link OverflowPolicy} if the queue is full.
+     * Called by the Pi4J callback threads.
+     *
+     * For {@link OverflowPolicy#COALESCE_PER_PIN} this method relies on events of one pin
+     * being delivered by one thread at a time, as Pi4J does.
+     *
+     * @param channel source of this event
+     * @param state new state of the pin
+     * @param timestamp time of the event (see {@link System#nanoTime()})
+     */
+    void add(InputChannel channel, PinState state, long timestamp) {
+        EventQueue eventQueue = eventQueues[channel.priority.ordinal()];
+        switch (overflowPolicy) {
+        case DROP_NEWEST:
+            if (!eventQueue.offer(channel, state, timestamp)) {
+                channel.statistics.dropped();
+                return;
+            }
+            break;
+        case DROP_OLDEST:
+            while (!eventQueue.offer(channel, state, timestamp)) {
+                InputChannel evicted = eventQueue.evict();
+                if (evicted != null) {
+                    evicted.statistics.dropped();
+                }
+            }
+            break;
+        case COALESCE_PER_PIN:
+            // once an event is pending, later events of the pin must not overtake it through the queue
+            if (channel.pendingEvent.get() == InputChannel.NO_PENDING_EVENT) {
+                channel.queued.incrementAndGet();
+                if (eventQueue.offer(channel, state, timestamp)) {
+                    break;
+                }
+                channel.queued.decrementAndGet();
+            }
+            if (channel.pendingEvent.getAndSet(InputChannel.encode(state, timestamp)) == InputChannel.NO_PENDING_EVENT) {
+                pendingEvents = true;
+            } else {
+                channel.statistics.coalesced();
+            }
+            break;
+        }
+        waiter.signal();
+    }
+
+    /**
+     * Wakes up the lane's thread, e.g. to let it notice that the dispatcher has been stopped.
+     */
+    void wakeUp() {
+        waiter.signal();
+    }
+
+    /**
+     * Lets the lane's thread replay the kept events of its channels that are no longer blocked.
+     */
+    void requestReplay() {
+        replayRequested = true;
+        waiter.signal();
+    }
+
+    private boolean hasWork() {
+        if (pendingEvents || replayRequested) {
+            return true;
+        }
+        for (EventQueue eventQueue : eventQueues) {
+            if (!eventQueue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void dispatch() {
+        LOG.info(String.format("Dispatcher lane %d started.", index));
+        Event[] batch = new Event[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batch[i] = new Event();
+        }
+        while (!dispatcher.isStopped()) {
+            if (replayRequested) {
+                replayBlockedEvents();
+            }
+            if (pendingEvents) {
+                firePendingEvents(batch[0]);
+            }
+            int count = drain(batch);
+            if (count == 0) {
+                if (!pendingEvents && !replayRequested) {
+                    waiter.await(hasWork);
+                }
+                continue;
+            }
+            if (count > 1) {
+                for (int i = 0; i < count; i++) {
+                    batch[i].channel.lastIndexInBatch = i;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                Event event = batch[i];
+                if (isFiring(event, i, count)) {
+                    fire(event);
+                }
+                event.clear();
+            }
+        }
+        LOG.info(String.format("Dispatcher lane %d stopped.", index));
+    }
+
+    /**
+     * Polls up to one batch of events from the queue of the priority class to be served next.
+     * @param batch reusable event containers
+     * @return number of polled events
+     */
+    private int drain(Event[] batch) {
+        Priority priority = nextPriority();
+        if (priority == null) {
+            return 0;
+        }
+        EventQueue eventQueue = eventQueues[priority.ordinal()];
+        int limit = Math.min(batch.length, budgets[priority.ordinal()]);
+        int count = 0;
+        while (count < limit && eventQueue.poll(batch[count])) {
+            if (overflowPolicy == OverflowPolicy.COALESCE_PER_PIN) {
+                batch[count].channel.queued.decrementAndGet();
+            }
+            count++;
+        }
+        budgets[priority.ordinal()] -= count;
+        LatencyStatistics queueWait = dispatcher.getQueueWait(priority);
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Event event = batch[i];
+            event.dequeued = now;
+            queueWait.record(now - event.timestamp);
+            event.channel.statistics.queueLatency.record(now - event.timestamp);
+        }
+        return count;
+    }
+
+    /**
+     * Selects the priority class to be served next: the highest class with queued events and remaining budget.
+     * If all classes with queued events have used up their budget, a new round is started.
+     * @return priority class, null if all queues are empty
+     */
+    private Priority nextPriority() {
+        for (int round = 0; round < 2; round++) {
+            boolean queued = false;
+            for (Priority priority : PRIORITIES) {
+                if (eventQueues[priority.ordinal()].isEmpty()) {
+                    continue;
+                }
+                queued = true;
+                if (budgets[priority.ordinal()] > 0) {
+                    return priority;
+                }
+            }
+            if (!queued) {
+                return null;
+            }
+            for (Priority priority : PRIORITIES) {
+                budgets[priority.ordinal()] = priority.getWeight();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decides whether a polled event is fired.
+     * 
+     * Within a batch, only the last event of a channel with {@link InputChannel#coalescingTransitions} is fired,
+     * and only if it changes the state dispatched last. All transitions before cancel each other out.
+     * 
+     * @param event event
+     * @param index index of the event within the batch
+     * @param count number of events in the batch
+     * @return Should the event be fired?
+     */
+    private boolean isFiring(Event event, int index, int count) {
+        InputChannel channel = event.channel;
+        if (dispatcher.isBlocked(channel)) {
+            // event was queued before the block, or is kept
+            holdBack(channel, event.state, event.timestamp);
+            return false;
+        }
+        if (channel.blockedEvents != null && !channel.blockedEvents.isEmpty()) {
+            // kept events go first
+            replayBlockedEvents(channel);
+            if (dispatcher.isBlocked(channel)) {
+                holdBack(channel, event.state, event.timestamp);
+                return false;
+            }
+        }
+        if (count > 1 && channel.coalescingTransitions) {
+            if (index != channel.lastIndexInBatch || event.state == channel.lastDispatchedState) {
+                channel.statistics.coalesced();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fire(Event event) {
+        InputChannel channel = event.channel;
+        channel.lastDispatchedState = event.state;
+        try {
+            dispatcher.fireEvent(event);
+        } catch (RuntimeException e) {
+            // a failing action must not stop the lane
+            LOG.error(String.format("Event of %s could not be handled.", channel.component), e);
+        }
+        channel.statistics.actionLatency.record(System.nanoTime() - event.dequeued);
+    }
+
+    /**
+     * Fires the pending events of all channels that have no more events in the queue.
+     * @param event reusable event container
+     */
+    private void firePendingEvents(Event event) {
+        pendingEvents = false;
+        for (InputChannel channel : channels) {
+            if (channel.pendingEvent.get() == InputChannel.NO_PENDING_EVENT) {
+                continue;
+            }
+            if (channel.queued.get() > 0) {
+                // older events of this pin have to be dispatched first
+                pendingEvents = true;
+                continue;
+            }
+            long pendingEvent = channel.pendingEvent.getAndSet(InputChannel.NO_PENDING_EVENT);
+            if (pendingEvent == InputChannel.NO_PENDING_EVENT) {
+                continue;
+            }
+            PinState state = InputChannel.decodeState(pendingEvent);
+            long timestamp = InputChannel.decodeTimestamp(pendingEvent);
+            if (dispatcher.isBlocked(channel)) {
+                holdBack(channel, state, timestamp);
+                continue;
+            }
+            if (channel.blockedEvents != null && !channel.blockedEvents.isEmpty()) {
+                replayBlockedEvents(channel);
+                if (dispatcher.isBlocked(channel)) {
+                    holdBack(channel, state, timestamp);
+                    continue;
+                }
+            }
+            event.channel = channel;
+            event.state = state;
+            event.timestamp = timestamp;
+            event.dequeued = System.nanoTime();
+            channel.statistics.queueLatency.record(event.dequeued - event.timestamp);
+            fire(event);
+            event.clear();
+        }
+    }
+
+    /**
+     * Discards or keeps an event of a blocked channel (see {@link BlockedEventPolicy}).
+     * @param channel channel
+     * @param state state
+     * @param timestamp timestamp (see {@link System#nanoTime()})
+     */
+    private void holdBack(InputChannel channel, PinState state, long timestamp) {
+        BlockedEventBuffer blockedEvents = channel.blockedEvents;
+        if (blockedEvents == null) {
+            channel.statistics.blocked();
+            return;
+        }
+        if (blockedEvents.isFull()) {
+            // either this event or the one it replaces
+            channel.statistics.lost();
+        }
+        if (blockedEvents.store(state, timestamp)) {
+            channel.statistics.kept();
+        }
+    }
+
+    /**
+     * Replays the kept events of all channels that are no longer blocked.
+     */
+    private void replayBlockedEvents() {
+        replayRequested = false;
+        for (InputChannel channel : channels) {
+            if (channel.blockedEvents != null && !channel.blockedEvents.isEmpty()) {
+                replayBlockedEvents(channel);
+            }
+        }
+    }
+
+    /**
+     * Replays the kept events of a channel, in order and with their original timestamps, until the channel gets blocked again.
+     * @param channel channel
+     */
+    private void replayBlockedEvents(InputChannel channel) {
+        while (!dispatcher.isBlocked(channel) && channel.blockedEvents.poll(channel, replayedEvent)) {
+            replayedEvent.dequeued = System.nanoTime();
+            fire(replayedEvent);
+            replayedEvent.clear();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * Receiver of the edges of one pin.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+@FunctionalInterface
+interface EdgeSink {
+
+    /**
+     * Handles an edge.
+     * @param high new state of the pin
+     * @param timestamp time of the edge (see {@link System#nanoTime()})
+     */
+    void edge(boolean high, long timestamp);
+}
@@ -0,0 +1,54 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Container object for events in the event queue.
+ * 
+ * Instances are mutable so that queues can reuse them instead of allocating a new one per event.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class Event {
+
+    InputChannel channel;
+    PinState state;
+
+    /**
+     * Time the GPIO listener received the event (see {@link System#nanoTime()}).
+     */
+    long timestamp;
+
+    /**
+     * Time the dispatcher took the event from the queue (see {@link System#nanoTime()}).
+     */
+    long dequeued;
+
+    Event() {
+    }
+
+    Event(InputChannel channel, PinState state, long timestamp) {
+        this.channel = channel;
+        this.state = state;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Copies the content of the given event into this one.
+     * @param event source
+     */
+    void copyFrom(Event event) {
+        this.channel = event.channel;
+        this.state = event.state;
+        this.timestamp = event.timestamp;
+        this.dequeued = event.dequeued;
+    }
+
+    /**
+     * Removes all references held by this event.
+     */
+    void clear() {
+        this.channel = null;
+        this.state = null;
+    }
+}
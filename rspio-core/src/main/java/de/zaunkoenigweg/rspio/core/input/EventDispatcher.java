@@ -1,25 +1,52 @@
 package de.zaunkoenigweg.rspio.core.input;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.pi4j.io.gpio.event.GpioPinDigitalStateChangeEvent;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
 
+import de.zaunkoenigweg.rspio.core.component.AsyncAction;
 import de.zaunkoenigweg.rspio.core.component.Blockable;
+import de.zaunkoenigweg.rspio.core.component.BlockingToken;
 import de.zaunkoenigweg.rspio.core.component.DigitalInputComponent;
+import de.zaunkoenigweg.rspio.core.component.InputObserver;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
 
 /**
  * This dispatcher holds a queue with incoming events and fires them in the right sequence.
  * It acts as a buffer between the actual GPIO events from Pi4J and RSPIO's own event processing.
  * 
- * This dispatcher is a {@link Blockable} and can therefore be instructed to block further events.
+ * This dispatcher is a {@link Blockable} and can therefore be instructed to block further events,
+ * either of all pins or scoped to a pin or a group of components. Blocked events are discarded
+ * by the GPIO listener; the blocked check only reads block counters and does not lock.
+ * Components may keep their blocked events instead, which are replayed once the block is released (see {@link BlockedEventPolicy}).
  * 
  * As of now, the dispatcher works only for {@link DigitalInputComponent}s
  * 
+ * The queue implementation is selected by a {@link QueueMode}.
+ * 
+ * Events are dispatched by one or more {@link DispatchLane}s. Events of one pin always go through the same lane
+ * and are therefore dispatched in order, whereas pins in different lanes are dispatched in parallel.
+ * So a slow action only delays the pins sharing its lane.
+ * 
+ * With a batch size greater than 1, a lane that has fallen behind drains several events at once and skips
+ * transitions that cancel each other out for components that only care about their latest state
+ * (see {@link DigitalInputComponent#isCoalescingTransitions()}).
+ * 
+ * Within each lane, events of higher {@link Priority} classes are served first.
+ * 
  * @author mail@nikolaus-winter.de
  */
 public class EventDispatcher implements Blockable {
@@ -27,47 +54,124 @@ public class EventDispatcher implements Blockable {
     private final static Log LOG = LogFactory.getLog(EventDispatcher.class);
 
     /**
-     * Event Queue.
+     * Dispatcher lanes. Each pin is assigned to exactly one lane.
      */
-    private final BlockingQueue<Event> eventQueue = new LinkedBlockingQueue<>();
+    private final DispatchLane[] lanes;
 
     /**
-     * Thread that processes/dispatches events.
+     * Lane that gets the next created channel.
      */
-    private Thread dispatcherThread;
+    private int nextLane = 0;
+
+    /**
+     * Strategy of the lanes to wait for events.
+     */
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * Latency between the GPIO event and calling its event callback.
+     */
+    private final LatencyStatistics dispatchLatency = new LatencyStatistics();
+
+    /**
+     * Time events wait in the queue, per {@link Priority} (indexed by ordinal).
+     */
+    private final LatencyStatistics[] queueWait = new LatencyStatistics[Priority.values().length];
 
     /**
      * Flag: EventDispatcher should stop.
      */
-    private boolean stopped = false;
+    private volatile boolean stopped = false;
 
     /**
      * Flag: EventDispatcher temporarily blocked.
      */
-    private boolean blocked = false;
+    private volatile boolean blocked = false;
+
+    /**
+     * Number of blocks of all pins (see {@link #blockAll(Duration)}).
+     */
+    private final AtomicInteger allBlocks = new AtomicInteger();
+
+    /**
+     * Channels by pin.
+     */
+    private final Map<Pin, InputChannel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Channels by id (see {@link InputChannel#id}), null for removed channels.
+     * Ids are not reused, so a queued event never reaches the wrong channel.
+     */
+    private volatile InputChannel[] channelTable = new InputChannel[0];
+
+    /**
+     * Implementation of the event queues.
+     */
+    private final QueueMode queueMode;
+
+    /**
+     * Channels by group (see {@link DigitalInputComponent#getGroups()}).
+     */
+    private final Map<String, List<InputChannel>> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Number of blocks of each group (see {@link #blockGroup(String, Duration)}).
+     * Kept while the dispatcher lives, so channels created during a block are blocked, too.
+     */
+    private final Map<String, AtomicInteger> groupBlocks = new ConcurrentHashMap<>();
+
+    /**
+     * Timer releasing blocks on timeout, null for the {@link TimingWheel#getDefault() default}.
+     */
+    private TimingWheel timingWheel;
 
     /**
-     * The constructor defines the actual dispatcher thread.
+     * Observers of all dispatched events.
+     */
+    private volatile InputObserver[] observers = new InputObserver[0];
+
+    /**
+     * Runs the work of {@link AsyncAction}s.
+     */
+    private Executor actionExecutor;
+
+    /**
+     * Creates dispatcher with a {@link QueueMode#LINKED} queue and a single lane.
      */
     public EventDispatcher() {
-        dispatcherThread = new Thread(() -> {
-            try {
-                LOG.info("EventDispatcher started.");
-                Event event;
-                while (!stopped) {
-                    event = eventQueue.poll(1, TimeUnit.SECONDS);
-                    if (event == null) {
-                        continue;
-                    }
-                    fireEvent(event);
-                }
-                LOG.info("EventDispatcher stopped.");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
-        });
-        dispatcherThread.start();
+        this(QueueMode.LINKED, 1024, OverflowPolicy.DROP_NEWEST, 1, 1, WaitStrategy.BLOCKING);
+    }
+
+    /**
+     * The constructor defines the actual dispatcher threads, one per lane.
+     * 
+     * @param queueMode implementation of the event queues
+     * @param queueCapacity capacity of each lane's event queue
+     * @param overflowPolicy what to do with events that do not fit into the queue
+     * @param batchSize maximum number of events a lane drains from its queue at once
+     * @param laneCount number of lanes, i.e. of pins that can be dispatched in parallel
+     * @param waitStrategy how the lanes wait for events
+     */
+    public EventDispatcher(QueueMode queueMode, int queueCapacity, OverflowPolicy overflowPolicy, int batchSize, int laneCount, WaitStrategy waitStrategy) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException(String.format("Number of lanes must be positive, but was %d.", laneCount));
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(String.format("Batch size must be positive, but was %d.", batchSize));
+        }
+        this.waitStrategy = waitStrategy;
+        this.queueMode = queueMode;
+        for (Priority priority : Priority.values()) {
+            queueWait[priority.ordinal()] = new LatencyStatistics();
+        }
+        this.lanes = new DispatchLane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new DispatchLane(this, i, queueMode, queueCapacity, overflowPolicy, batchSize, waitStrategy);
+        }
+        LOG.info(String.format("EventDispatcher started (queue mode %s, capacity %d, overflow policy %s, batch size %d, %d lane(s), wait strategy %s).", queueMode, queueCapacity, overflowPolicy, batchSize, laneCount, waitStrategy));
+        for (DispatchLane lane : lanes) {
+            lane.start();
+        }
     }
 
     /**
@@ -75,31 +179,95 @@ public class EventDispatcher implements Blockable {
      * 
      * @param event event
      */
-    private void fireEvent(Event event) {
-        switch (event.event.getState()) {
-        case HIGH:
-            event.component.changedToHigh(this);
-            break;
-        case LOW:
-            event.component.changedToLow(this);
-            break;
+    void fireEvent(Event event) {
+        if (event.channel.removed) {
+            return;
+        }
+        dispatchLatency.record(System.nanoTime() - event.timestamp);
+        boolean suppressed = false;
+        for (InputObserver observer : observers) {
+            suppressed |= observer.observe(event.channel.component, event.state, event.timestamp, this);
+        }
+        if (suppressed) {
+            event.channel.statistics.suppressed();
+            return;
+        }
+        if (event.channel.primitiveComponent != null) {
+            event.channel.primitiveComponent.changed(event.channel.pinAddress, event.state == PinState.HIGH, event.timestamp, this);
+        } else if (event.state == PinState.HIGH) {
+            event.channel.component.changedToHigh(this, event.timestamp);
+        } else {
+            event.channel.component.changedToLow(this, event.timestamp);
+        }
+    }
+
+    /**
+     * Creates the channel for the events of a component and assigns it to a lane.
+     * @param component component
+     * @param priority priority class of the component
+     * @return channel
+     */
+    synchronized InputChannel createChannel(DigitalInputComponent component, Priority priority) {
+        int id = channelTable.length;
+        if (queueMode == QueueMode.PACKED && id == PackedEventQueue.MAX_CHANNELS) {
+            throw new IllegalStateException(String.format("No more than %d components can be registered with queue mode %s.", PackedEventQueue.MAX_CHANNELS, queueMode));
+        }
+        DispatchLane lane = lanes[nextLane];
+        nextLane = (nextLane + 1) % lanes.length;
+        AtomicInteger[] channelGroupBlocks = component.getGroups().stream().map(group -> groupBlocks.computeIfAbsent(group, key -> new AtomicInteger())).toArray(AtomicInteger[]::new);
+        InputChannel channel = new InputChannel(id, component, priority, lane, channelGroupBlocks);
+        InputChannel[] newChannelTable = Arrays.copyOf(channelTable, id + 1);
+        newChannelTable[id] = channel;
+        channelTable = newChannelTable;
+        lane.addChannel(channel);
+        channels.put(component.getPin(), channel);
+        for (String group : component.getGroups()) {
+            groups.computeIfAbsent(group, key -> new CopyOnWriteArrayList<>()).add(channel);
+        }
+        return channel;
+    }
+
+    /**
+     * Removes the channel of an unregistered component. Events of the channel that are still queued are skipped.
+     * @param channel channel
+     */
+    synchronized void removeChannel(InputChannel channel) {
+        channel.removed = true;
+        channel.lane.removeChannel(channel);
+        InputChannel[] newChannelTable = channelTable.clone();
+        newChannelTable[channel.id] = null;
+        channelTable = newChannelTable;
+        channels.remove(channel.component.getPin(), channel);
+        for (String group : channel.component.getGroups()) {
+            List<InputChannel> members = groups.get(group);
+            members.remove(channel);
+            if (members.isEmpty()) {
+                groups.remove(group);
+            }
         }
     }
 
     /**
      * Adds event to the queue, if the latter is not blocked.
      * 
-     * @param component source of this event.
-     * @param event Event
-     */
-    public void add(DigitalInputComponent component, GpioPinDigitalStateChangeEvent event) {
-        synchronized(eventQueue) {
-            if(this.blocked) {
-                LOG.info("Event blocked!!!" + event.getPin());
-                return;
-            }
-            eventQueue.add(new Event(component, event));
+     * Events of components keeping their blocked events are always queued. Their lane keeps them in order,
+     * as it has to do with events queued before the block anyway.
+     * 
+     * This method does not lock, it is called by the Pi4J callback threads.
+     * 
+     * @param channel source of this event.
+     * @param state new state of the pin
+     * @param timestamp time the GPIO listener received the event (see {@link System#nanoTime()})
+     */
+    void add(InputChannel channel, PinState state, long timestamp) {
+        if (channel.removed) {
+            return;
         }
+        if(channel.blockedEvents == null && isBlocked(channel)) {
+            channel.statistics.blocked();
+            return;
+        }
+        channel.lane.add(channel, state, timestamp);
     }
 
     /**
@@ -107,7 +275,31 @@ public class EventDispatcher implements Blockable {
      */
     public void stop() {
         this.stopped = true;
+        for (DispatchLane lane : lanes) {
+            lane.wakeUp();
+        }
         LOG.info("stop requested");
+        LOG.info(String.format("Dispatch latency (wait strategy %s): %s", waitStrategy, dispatchLatency));
+        for (Priority priority : Priority.values()) {
+            LOG.info(String.format("Queue wait (priority %s): %s", priority, queueWait[priority.ordinal()]));
+        }
+    }
+
+    /**
+     * Gets the time events of the given priority class waited in the queue.
+     * @param priority priority class
+     * @return latency statistics
+     */
+    public LatencyStatistics getQueueWait(Priority priority) {
+        return queueWait[priority.ordinal()];
+    }
+
+    /**
+     * Gets the latency between GPIO events and calling their event callbacks, as measured for the current {@link WaitStrategy}.
+     * @return latency statistics
+     */
+    public LatencyStatistics getDispatchLatency() {
+        return dispatchLatency;
     }
 
     /**
@@ -115,35 +307,155 @@ public class EventDispatcher implements Blockable {
      * 
      * This method must be called from within an action listener to make sure
      * no further events are processed.
+     * 
+     * Queued events are discarded (or kept, see {@link BlockedEventPolicy}) when the lanes come to them.
      */
     public void block() {
-        synchronized (eventQueue) {
-            this.blocked = true;
-            eventQueue.clear();
-        }
+        this.blocked = true;
     }
     
     /**
      * Do not block any further events.
+     * 
+     * Scoped blocks (see {@link BlockingToken}) are not affected.
      */
     public void unblock() {
-        synchronized (eventQueue) {
-            this.blocked = false;
+        this.blocked = false;
+        replayBlockedEvents();
+    }
+
+    @Override
+    public BlockingToken blockPin(Pin pin, Duration timeout) {
+        InputChannel channel = channels.get(pin);
+        if (channel == null) {
+            throw new IllegalArgumentException(String.format("Pin %s could not be blocked. No component is registered for it.", pin));
+        }
+        return block(new ScopedBlock(String.format("pin %s", pin), this::replayBlockedEvents, channel.blocks), timeout);
+    }
+
+    @Override
+    public BlockingToken blockGroup(String group, Duration timeout) {
+        List<InputChannel> members = groups.get(group);
+        if (members == null) {
+            throw new IllegalArgumentException(String.format("Group '%s' could not be blocked. No component belongs to it.", group));
         }
+        return block(new ScopedBlock(String.format("group '%s'", group), this::replayBlockedEvents, groupBlocks.computeIfAbsent(group, key -> new AtomicInteger())), timeout);
+    }
+
+    @Override
+    public BlockingToken blockAll(Duration timeout) {
+        return block(new ScopedBlock("all pins", this::replayBlockedEvents, allBlocks), timeout);
+    }
+
+    private BlockingToken block(ScopedBlock block, Duration timeout) {
+        if (timeout != null) {
+            block.releaseAfter(timeout, timingWheel != null ? timingWheel : TimingWheel.getDefault());
+        }
+        LOG.debug(String.format("%s acquired.", block));
+        return block;
     }
 
     /**
-     * Container object for events in the event queue.  
+     * Lets the lanes replay the kept events of channels that are no longer blocked.
      */
-    private class Event {
-        Event(DigitalInputComponent component, GpioPinDigitalStateChangeEvent event) {
-            this.component = component;
-            this.event = event;
+    private void replayBlockedEvents() {
+        for (DispatchLane lane : lanes) {
+            lane.requestReplay();
         }
-        DigitalInputComponent component;
-        GpioPinDigitalStateChangeEvent event;
     }
-    
-    
-    
+
+    /**
+     * Starts an asynchronous action of a component and tracks it until its stage completes.
+     * 
+     * @param channel channel of the component
+     * @param action action
+     * @param blocking Should the component be blocked until the stage completes?
+     * @return stage of the action
+     */
+    CompletionStage<?> runAsync(InputChannel channel, AsyncAction action, boolean blocking) {
+        BlockingToken block = blocking ? blockPin(channel.component.getPin(), null) : null;
+        channel.inFlight.incrementAndGet();
+        CompletionStage<?> stage;
+        try {
+            stage = action.run(actionExecutor);
+        } catch (RuntimeException e) {
+            // e.g. RejectedExecutionException if the executor is saturated
+            CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            stage = failed;
+        }
+        if (stage == null) {
+            stage = CompletableFuture.completedFuture(null);
+        }
+        stage.whenComplete((result, error) -> {
+            channel.inFlight.decrementAndGet();
+            if (block != null) {
+                block.close();
+            }
+            if (error != null) {
+                LOG.error(String.format("Asynchronous action of %s failed.", channel.component), error);
+            }
+        });
+        return stage;
+    }
+
+    /**
+     * Adds an observer of all dispatched events.
+     * @param observer observer
+     */
+    synchronized void addObserver(InputObserver observer) {
+        InputObserver[] newObservers = Arrays.copyOf(observers, observers.length + 1);
+        newObservers[observers.length] = observer;
+        observers = newObservers;
+    }
+
+    /**
+     * Sets the executor for the work of {@link AsyncAction}s.
+     * @param actionExecutor executor
+     */
+    void setActionExecutor(Executor actionExecutor) {
+        this.actionExecutor = actionExecutor;
+    }
+
+    /**
+     * Sets the timer releasing blocks on timeout.
+     * @param timingWheel timer, null for the {@link TimingWheel#getDefault() default}
+     */
+    void setTimingWheel(TimingWheel timingWheel) {
+        this.timingWheel = timingWheel;
+    }
+
+    /**
+     * Gets a channel by its id.
+     * @param id id (see {@link InputChannel#id})
+     * @return channel, null if it has been removed
+     */
+    InputChannel getChannel(int id) {
+        return channelTable[id];
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Are the events of the given channel blocked?
+     * 
+     * Called for every event by the GPIO listeners and the lanes, so it only reads the flag and the block counters.
+     * 
+     * @param channel channel
+     * @return true, if blocked
+     */
+    boolean isBlocked(InputChannel channel) {
+        if (blocked || allBlocks.get() > 0 || channel.blocks.get() > 0) {
+            return true;
+        }
+        for (AtomicInteger counter : channel.groupBlocks) {
+            if (counter.get() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
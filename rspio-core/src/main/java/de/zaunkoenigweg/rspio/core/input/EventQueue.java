@@ -0,0 +1,47 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Queue between the Pi4J callback threads (producers) and the dispatcher thread (consumer).
+ * 
+ * Implementations must support any number of producers, but only one consumer.
+ * Only {@link #evict()} may be called by producers, too.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+interface EventQueue {
+
+    /**
+     * Adds an event to the queue. May be called by any thread.
+     * 
+     * @param channel source of this event
+     * @param state new state of the pin
+     * @param timestamp time of the event (see {@link System#nanoTime()})
+     * @return Has the event been added? (false if the queue is full)
+     */
+    boolean offer(InputChannel channel, PinState state, long timestamp);
+
+    /**
+     * Retrieves the next event without waiting.
+     * 
+     * The event is copied into the given container, so the consumer can reuse one container for all events.
+     * This method must only be called by the consumer thread. Waiting for events is up to the {@link EventWaiter}.
+     * 
+     * @param target container that receives the event
+     * @return Has an event been retrieved?
+     */
+    boolean poll(Event target);
+
+    /**
+     * Is the queue empty? This method must only be called by the consumer thread.
+     * @return true, if there is no event to poll
+     */
+    boolean isEmpty();
+
+    /**
+     * Removes the oldest event to make room for a new one. May be called by any thread.
+     * @return channel of the removed event, null if the queue was empty
+     */
+    InputChannel evict();
+}
@@ -0,0 +1,26 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lets one dispatcher thread wait for events (see {@link WaitStrategy}).
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+interface EventWaiter {
+
+    /**
+     * Waits until there is (probably) work to do.
+     * 
+     * Implementations may return early, so the caller has to check for work and its own state after returning.
+     * This method must only be called by the consumer thread.
+     * 
+     * @param hasWork tells whether there is work to do, e.g. whether the queue is not empty
+     */
+    void await(BooleanSupplier hasWork);
+
+    /**
+     * Wakes up the waiting thread. Called by producers after adding an event and on shutdown.
+     */
+    void signal();
+}
@@ -0,0 +1,88 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.time.Duration;
+
+/**
+ * Rejects pulses shorter than a minimum duration, e.g. spikes caused by electrical noise.
+ * 
+ * A transition is only passed when the new state has been stable for the minimum duration.
+ * If the pin returns to the previous state before, both edges are suppressed.
+ * Passed transitions keep their original timestamp, but are delayed by the minimum duration.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class GlitchFilter extends InputFilter {
+
+    private final long minimumPulseNanos;
+
+    /**
+     * Flag: Has any edge been passed yet?
+     */
+    private boolean initialized;
+
+    /**
+     * State passed last.
+     */
+    private boolean passed;
+
+    /**
+     * Flag: Is a transition waiting for confirmation?
+     */
+    private boolean pending;
+
+    private boolean pendingState;
+
+    private long pendingTimestamp;
+
+    /**
+     * Creates filter.
+     * @param minimumPulse minimum duration of a valid pulse, e.g. 5ms
+     */
+    public GlitchFilter(Duration minimumPulse) {
+        this.minimumPulseNanos = minimumPulse.toNanos();
+    }
+
+    @Override
+    protected void edge(boolean high, long timestamp) {
+        if (pending) {
+            if (high != pendingState) {
+                // pin returned to the previous state: glitch
+                pending = false;
+                cancelTimeout();
+                suppressed();
+                suppressed();
+            }
+            return;
+        }
+        if (initialized && high == passed) {
+            suppressed();
+            return;
+        }
+        pending = true;
+        pendingState = high;
+        pendingTimestamp = timestamp;
+        schedule(minimumPulseNanos);
+    }
+
+    @Override
+    protected void timeout(long now) {
+        if (!pending) {
+            return;
+        }
+        pending = false;
+        initialized = true;
+        passed = pendingState;
+        emit(pendingState, pendingTimestamp);
+    }
+
+    @Override
+    protected void reset() {
+        initialized = false;
+        pending = false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GlitchFilter (%d us)", minimumPulseNanos / 1000);
+    }
+}
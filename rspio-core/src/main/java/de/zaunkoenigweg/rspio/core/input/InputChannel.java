@@ -0,0 +1,136 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.component.DigitalInputComponent;
+import de.zaunkoenigweg.rspio.core.component.PrimitiveInputComponent;
+
+/**
+ * Path of the events of one registered component through the {@link EventDispatcher}.
+ * 
+ * The channel is created once when the {@link InputController} is started, so the listener path
+ * finds everything it needs for an event without any lookup.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class InputChannel {
+
+    /**
+     * Value of {@link #pendingEvent} if there is no pending event.
+     */
+    final static long NO_PENDING_EVENT = Long.MIN_VALUE;
+
+    final DigitalInputComponent component;
+
+    /**
+     * The component, if it receives its events as primitives, otherwise null.
+     */
+    final PrimitiveInputComponent primitiveComponent;
+
+    /**
+     * Address of the component's pin.
+     */
+    final int pinAddress;
+
+    /**
+     * Id of the channel, unique within its {@link EventDispatcher} (see {@link EventDispatcher#getChannel(int)}).
+     */
+    final int id;
+
+    final DispatchLane lane;
+
+    final Priority priority;
+
+    final PinStatistics statistics;
+
+    /**
+     * Flag: Transitions cancelling each other out within a batch may be collapsed (see {@link DigitalInputComponent#isCoalescingTransitions()}).
+     */
+    final boolean coalescingTransitions;
+
+    /**
+     * State of the last event dispatched to the component (only accessed by the lane's thread).
+     */
+    PinState lastDispatchedState;
+
+    /**
+     * Index of the channel's last event in the batch being dispatched (only accessed by the lane's thread).
+     */
+    int lastIndexInBatch;
+
+    /**
+     * Number of this channel's events in the lane's queue (only maintained for {@link OverflowPolicy#COALESCE_PER_PIN}).
+     */
+    final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Latest event that did not fit into the queue (see {@link #encode(PinState, long)}), or {@link #NO_PENDING_EVENT}
+     * (only used for {@link OverflowPolicy#COALESCE_PER_PIN}).
+     */
+    final AtomicLong pendingEvent = new AtomicLong(NO_PENDING_EVENT);
+
+    /**
+     * Number of blocks of this channel's pin (see {@link ScopedBlock}).
+     */
+    final AtomicInteger blocks = new AtomicInteger();
+
+    /**
+     * Block counters of the component's groups, shared with the other members of the groups (see {@link ScopedBlock}).
+     */
+    final AtomicInteger[] groupBlocks;
+
+    /**
+     * Events kept while the channel is blocked, null if blocked events are discarded (see {@link BlockedEventPolicy}).
+     */
+    final BlockedEventBuffer blockedEvents;
+
+    /**
+     * Number of asynchronous actions of the component that have not completed yet (see {@link de.zaunkoenigweg.rspio.core.component.AsyncAction}).
+     */
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Flag: The component has been unregistered, further events of this channel are discarded.
+     */
+    volatile boolean removed = false;
+
+    InputChannel(int id, DigitalInputComponent component, Priority priority, DispatchLane lane, AtomicInteger[] groupBlocks) {
+        this.id = id;
+        this.groupBlocks = groupBlocks;
+        this.component = component;
+        this.primitiveComponent = component instanceof PrimitiveInputComponent ? (PrimitiveInputComponent) component : null;
+        this.pinAddress = component.getPin().getAddress();
+        this.priority = priority;
+        this.lane = lane;
+        this.statistics = new PinStatistics(component.getPin());
+        this.coalescingTransitions = component.isCoalescingTransitions();
+        BlockedEventPolicy blockedEventPolicy = component.getBlockedEventPolicy();
+        this.blockedEvents = blockedEventPolicy == BlockedEventPolicy.DISCARD ? null : new BlockedEventBuffer(blockedEventPolicy, component.getBlockedEventCapacity());
+    }
+
+    /**
+     * Encodes state and timestamp of an event into one long, so both can be swapped atomically.
+     * @param state state
+     * @param timestamp timestamp (see {@link System#nanoTime()})
+     * @return encoded event
+     */
+    static long encode(PinState state, long timestamp) {
+        return (timestamp << 1) | (state == PinState.HIGH ? 1 : 0);
+    }
+
+    static PinState decodeState(long event) {
+        return (event & 1) == 1 ? PinState.HIGH : PinState.LOW;
+    }
+
+    static long decodeTimestamp(long event) {
+        return event >> 1;
+    }
+
+    @Override
+    public String toString() {
+        return component.toString();
+    }
+}
@@ -1,7 +1,24 @@
 package de.zaunkoenigweg.rspio.core.input;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
@@ -9,14 +26,22 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.GpioPin;
 import com.pi4j.io.gpio.GpioPinDigitalInput;
+import com.pi4j.io.gpio.GpioPinDigitalOutput;
 import com.pi4j.io.gpio.Pin;
 import com.pi4j.io.gpio.PinPullResistance;
 import com.pi4j.io.gpio.PinState;
 import com.pi4j.io.gpio.event.GpioPinListenerDigital;
 
+import de.zaunkoenigweg.rspio.core.component.AsyncAction;
 import de.zaunkoenigweg.rspio.core.component.DigitalInputComponent;
+import de.zaunkoenigweg.rspio.core.component.DirectInputComponent;
 import de.zaunkoenigweg.rspio.core.component.InputComponent;
+import de.zaunkoenigweg.rspio.core.component.InputObserver;
+import de.zaunkoenigweg.rspio.core.component.ScannedInputComponent;
+import de.zaunkoenigweg.rspio.core.concurrent.Threads;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
 
 /**
  * Controls all input of RSPIO
@@ -31,6 +56,85 @@ public class InputController {
      * Registered input components.
      */
     private Map<Pin, InputComponent> inputComponents = new HashMap<>();
+
+    /**
+     * Priority classes of the registered input components.
+     */
+    private Map<Pin, Priority> priorities = new HashMap<>();
+
+    /**
+     * Further pins of registered {@link DirectInputComponent}s and {@link ScannedInputComponent}s.
+     */
+    private Map<Pin, InputComponent> reservedPins = new HashMap<>();
+
+    /**
+     * Channels, edge sinks and pins of the registered components (created on {@link #start()} or registration while running).
+     */
+    private Map<InputComponent, Activation> activations = new IdentityHashMap<>();
+
+    /**
+     * Pin table: sinks of the edges of all listened pins, indexed by the pins' slots (see {@link #pinSlots}), null for pins without component.
+     * Replaced as a whole on every change, so the GPIO listeners read it without locking.
+     */
+    private volatile EdgeSink[] pinTable = new EdgeSink[0];
+
+    /**
+     * Slots of the pins in {@link #pinTable}. Each pin keeps its slot, so a listener of an unprovisioned pin
+     * that is still running can never reach another pin's sink. Read without locking by {@link #getState(Pin)}.
+     */
+    private Map<Pin, Integer> pinSlots = new ConcurrentHashMap<>();
+
+    /**
+     * Last-known states of the listened pins: bit n is set if the pin in slot n is HIGH (see {@link #pinSlots}).
+     * Updated by the GPIO listeners before the edge reaches its component, so actions see the state that triggered them.
+     * Pins beyond slot 63 are not tracked.
+     */
+    private final AtomicLong pinStates = new AtomicLong();
+
+    /**
+     * Provisioned pins whose edges are passed to {@link #pinTable}.
+     */
+    private Map<Pin, GpioPinDigitalInput> listenedPins = new HashMap<>();
+
+    /**
+     * Registered port input sources.
+     */
+    private List<PortInputSource> portSources = new ArrayList<>();
+
+    /**
+     * Pins of the registered port input sources. Their edges come from the sources, so they are not provisioned.
+     */
+    private Map<Pin, PortInputSource> portPins = new ConcurrentHashMap<>();
+
+    /**
+     * Pins sampled at a fixed rate instead of being listened to.
+     */
+    private List<Pin> sampledPins = new ArrayList<>();
+
+    /**
+     * Interval between two samples of the sampled pins.
+     */
+    private Duration sampleInterval = Duration.ofMillis(1);
+
+    /**
+     * Number of successive samples that must agree on a change of a sampled pin.
+     */
+    private int sampleConfirmations = 3;
+
+    /**
+     * Maximum share of the sample interval spent sampling (percent).
+     */
+    private int maxSamplingLoad = 10;
+
+    /**
+     * Sampler of the sampled pins (created on {@link #start()}), null if no pin is sampled.
+     */
+    private PinSampler pinSampler;
+
+    /**
+     * Registered observers of all pins.
+     */
+    private List<InputObserver> observers = new ArrayList<>();
     
     /**
      * Flag: Has an error occured during registration?
@@ -40,7 +144,7 @@ public class InputController {
     /**
      * Flag: Is this controller running?
      */
-    private boolean running = false;
+    private volatile boolean running = false;
  
     /**
      * Supplies GPIO Controller (Pi4J)
@@ -58,6 +162,61 @@ public class InputController {
      */
     private EventDispatcher eventDispatcher;
 
+    /**
+     * Runs the work of {@link AsyncAction}s (created on {@link #start()}).
+     */
+    private ThreadPoolExecutor actionExecutor;
+
+    /**
+     * Maximum number of threads running the work of {@link AsyncAction}s.
+     */
+    private int actionThreads = 4;
+
+    /**
+     * Maximum number of {@link AsyncAction}s waiting for a thread.
+     */
+    private int actionQueueCapacity = 64;
+
+    /**
+     * Timer for the timeouts of {@link InputFilter}s and blocks, null for the {@link TimingWheel#getDefault() default}.
+     */
+    private TimingWheel timingWheel;
+
+    /**
+     * Implementation of the dispatcher's event queue.
+     */
+    private QueueMode queueMode = QueueMode.LINKED;
+
+    /**
+     * Capacity of the dispatcher's event queue.
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * What the dispatcher does with events that do not fit into its queue.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+    /**
+     * Event channels of the registered components (created on {@link #start()}).
+     */
+    private Map<Pin, InputChannel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum number of events the dispatcher drains from its queue at once.
+     */
+    private int batchSize = 1;
+
+    /**
+     * Number of dispatcher lanes (pins dispatched in parallel).
+     */
+    private int dispatchLanes = 1;
+
+    /**
+     * How the dispatcher waits for events.
+     */
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+
     /**
      * Starts this GPIO controller.
      * @return Has the controller been started properly?
@@ -67,15 +226,39 @@ public class InputController {
             LOG.error("RSPIO InputController could not be started due to errors during registration of InputComponents.");
             return false;
         }
+        for (Pin pin : sampledPins) {
+            if (portPins.containsKey(pin)) {
+                LOG.error(String.format("RSPIO InputController could not be started. Sampled pin %s belongs to PortInputSource '%s'.", pin, portPins.get(pin).getName()));
+                return false;
+            }
+        }
         
-        this.eventDispatcher = new EventDispatcher();
+        this.eventDispatcher = new EventDispatcher(queueMode, queueCapacity, overflowPolicy, batchSize, dispatchLanes, waitStrategy);
+        this.eventDispatcher.setTimingWheel(timingWheel);
+        this.actionExecutor = createActionExecutor();
+        this.eventDispatcher.setActionExecutor(actionExecutor);
+        this.observers.forEach(eventDispatcher::addObserver);
 
         gpioController = gpioControllerSupplier.get();
-        this.inputComponents.forEach((pin, inputComponent) -> {
-            GpioPinDigitalInput digitalInput = gpioController.provisionDigitalInputPin(pin);
-            digitalInput.setShutdownOptions(true, PinState.LOW, PinPullResistance.OFF);
-            digitalInput.addListener(createGpioPinListener(inputComponent));
-        });
+        this.channels.clear();
+        this.activations.clear();
+        this.listenedPins.clear();
+        this.pinTable = new EdgeSink[0];
+        this.pinStates.set(0);
+        this.pinSampler = null;
+        if (!sampledPins.isEmpty()) {
+            this.pinSampler = new PinSampler(new ArrayList<>(sampledPins), gpioController, sampleInterval.toNanos(), sampleConfirmations, maxSamplingLoad, timingWheel != null ? timingWheel : TimingWheel.getDefault());
+            sampledPins.forEach(pin -> portPins.put(pin, pinSampler));
+        }
+        List<Activation> newActivations = new ArrayList<>();
+        this.inputComponents.values().forEach(inputComponent -> newActivations.add(activate(inputComponent)));
+        updatePinTable(Collections.emptyList(), newActivations);
+        // the ports first, so the components are attached with their pins' states
+        this.portSources.forEach(this::startPortSource);
+        if (pinSampler != null) {
+            startPortSource(pinSampler);
+        }
+        this.activations.values().forEach(this::attach);
         running = true;
 
         LOG.info(String.format("RSPIO InputController started with %d input components.", inputComponents.size()));
@@ -92,43 +275,722 @@ public class InputController {
             return false;
         }
 
+        activations.values().stream().filter(activation -> activation.scanScheduler != null).forEach(activation -> activation.scanScheduler.stop());
+        portSources.forEach(PortInputSource::stop);
+        if (pinSampler != null) {
+            pinSampler.stop();
+            sampledPins.forEach(portPins::remove);
+        }
         eventDispatcher.stop();
         gpioController.shutdown();
+        actionExecutor.shutdown();
         running = false;
 
+        this.channels.values().forEach(channel -> LOG.info(channel.statistics));
+
         LOG.info(String.format("RSPIO InputController with %d input components shut down.", inputComponents.size()));
         return true;
     }
 
     /**
-     * Register input component.
+     * Register input component with {@link Priority#NORMAL}.
      * @param inputComponent component to register
      * @return Has the component been registered properly?
      */
     public boolean register(InputComponent inputComponent) {
+        return register(inputComponent, Priority.NORMAL);
+    }
+
+    /**
+     * Register input component.
+     * 
+     * Components can be registered while the controller is running. Their pins are provisioned right away.
+     * 
+     * @param inputComponent component to register
+     * @param priority priority class of the component's events
+     * @return Has the component been registered properly?
+     */
+    public boolean register(InputComponent inputComponent, Priority priority) {
         if (inputComponent == null) {
             LOG.warn("InputComponent 'null' could not be registered.");
             return false;
         }
-        synchronized (this.inputComponents) {
-            if (this.running) {
-                LOG.warn(String.format("InputComponent '%s' could not be registered. InputController already started.", inputComponent));
+        return replace(Collections.emptyList(), Collections.singletonMap(inputComponent, priority));
+    }
+
+    /**
+     * Unregister input component. If the controller is running, its pins are released right away,
+     * and its events still queued are discarded.
+     * @param inputComponent registered component
+     * @return Has the component been unregistered properly?
+     */
+    public boolean unregister(InputComponent inputComponent) {
+        return replace(Collections.singletonList(inputComponent), Collections.emptyMap());
+    }
+
+    /**
+     * Replaces a set of registered input components by another one, e.g. to reconfigure a panel without restarting.
+     * 
+     * The swap is atomic for the GPIO listeners: each edge goes either to the old or to the new components.
+     * A pin may be passed from an old to a new component. The new components are registered with their own
+     * priority class (see {@link DigitalInputComponent#getPriority()}).
+     * 
+     * @param oldComponents registered components to unregister
+     * @param newComponents components to register
+     * @return Have the components been replaced? If not, nothing has been changed.
+     */
+    public boolean replace(Collection<? extends InputComponent> oldComponents, Collection<? extends InputComponent> newComponents) {
+        Map<InputComponent, Priority> newPriorities = new LinkedHashMap<>();
+        for (InputComponent newComponent : newComponents) {
+            newPriorities.put(newComponent, newComponent instanceof DigitalInputComponent ? ((DigitalInputComponent)newComponent).getPriority() : Priority.NORMAL);
+        }
+        return replace(oldComponents, newPriorities);
+    }
+
+    private synchronized boolean replace(Collection<? extends InputComponent> oldComponents, Map<? extends InputComponent, Priority> newComponents) {
+        for (InputComponent oldComponent : oldComponents) {
+            if (oldComponent == null || this.inputComponents.get(oldComponent.getPin()) != oldComponent) {
+                LOG.warn(String.format("InputComponent '%s' could not be unregistered. It is not registered.", oldComponent));
                 return false;
             }
-            if (this.inputComponents.containsKey(inputComponent.getPin())) {
-                String errorMessage = String.format("InputComponent '%s' could not be registered. Pin %s is in use.", inputComponent, inputComponent.getPin());
-                LOG.error(errorMessage);
-                this.errorsDuringRegistration = true;
-                return false;
+        }
+        Set<Pin> freedPins = new HashSet<>();
+        oldComponents.forEach(oldComponent -> freedPins.addAll(getPins(oldComponent)));
+        Set<Pin> newPins = new HashSet<>();
+        for (InputComponent newComponent : newComponents.keySet()) {
+            for (Pin pin : getPins(newComponent)) {
+                boolean inUse = (this.inputComponents.containsKey(pin) || this.reservedPins.containsKey(pin)) && !freedPins.contains(pin);
+                if (inUse || !newPins.add(pin)) {
+                    String errorMessage = String.format("InputComponent '%s' could not be registered. Pin %s is in use.", newComponent, pin);
+                    LOG.error(errorMessage);
+                    // a running controller keeps its components, so there is nothing left to repair
+                    if (!this.running) {
+                        this.errorsDuringRegistration = true;
+                    }
+                    return false;
+                }
             }
-            inputComponents.put(inputComponent.getPin(), inputComponent);
-            LOG.info(String.format("RSPIO InputController %s registered.", inputComponent));
+        }
+
+        for (InputComponent oldComponent : oldComponents) {
+            inputComponents.remove(oldComponent.getPin());
+            priorities.remove(oldComponent.getPin());
+            getPins(oldComponent).forEach(reservedPins::remove);
+            LOG.info(String.format("RSPIO InputController %s unregistered.", oldComponent));
+        }
+        newComponents.forEach((newComponent, priority) -> {
+            inputComponents.put(newComponent.getPin(), newComponent);
+            getPins(newComponent).stream().filter(pin -> !pin.equals(newComponent.getPin())).forEach(pin -> reservedPins.put(pin, newComponent));
+            priorities.put(newComponent.getPin(), priority);
+            LOG.info(String.format("RSPIO InputController %s registered (priority %s).", newComponent, priority));
+        });
+        if (!this.running) {
             return true;
         }
+
+        List<Activation> oldActivations = new ArrayList<>();
+        for (InputComponent oldComponent : oldComponents) {
+            oldActivations.add(activations.remove(oldComponent));
+        }
+        List<Activation> newActivations = new ArrayList<>();
+        for (InputComponent newComponent : newComponents.keySet()) {
+            newActivations.add(activate(newComponent));
+        }
+        // the listeners see either the old or the new table
+        updatePinTable(oldActivations, newActivations);
+        oldActivations.forEach(this::detach);
+        newActivations.forEach(this::attach);
+        return true;
     }
 
-    private GpioPinListenerDigital createGpioPinListener(final InputComponent inputComponent) {
-        return (event) -> eventDispatcher.add((DigitalInputComponent)inputComponent, event);
+    /**
+     * Register source of the input of a whole port, e.g. an I/O expander.
+     * 
+     * Components can be registered for the pins of the port like for any other pin. Their pins are not provisioned,
+     * instead the source's snapshots are diffed against the previous one and the changed pins' edges are passed to the components.
+     * If the controller is running, the source is started right away.
+     * 
+     * @param source port input source
+     * @return Has the source been registered properly?
+     */
+    public synchronized boolean registerPortSource(PortInputSource source) {
+        List<Pin> pins = source.getPins();
+        if (pins.size() > Long.SIZE) {
+            LOG.error(String.format("PortInputSource '%s' could not be registered. It has %d pins, but at most %d are supported.", source.getName(), pins.size(), Long.SIZE));
+            return false;
+        }
+        for (Pin pin : pins) {
+            if (portPins.containsKey(pin) || listenedPins.containsKey(pin) || pins.indexOf(pin) != pins.lastIndexOf(pin)) {
+                LOG.error(String.format("PortInputSource '%s' could not be registered. Pin %s is in use.", source.getName(), pin));
+                if (!this.running) {
+                    this.errorsDuringRegistration = true;
+                }
+                return false;
+            }
+        }
+        pins.forEach(pin -> portPins.put(pin, source));
+        portSources.add(source);
+        LOG.info(String.format("RSPIO PortInputSource '%s' registered (pins %s).", source.getName(), pins));
+        if (this.running) {
+            startPortSource(source);
+        }
+        return true;
+    }
+
+    /**
+     * Register observer of the events of all pins.
+     * @param observer observer to register
+     * @return Has the observer been registered properly?
+     */
+    public synchronized boolean registerObserver(InputObserver observer) {
+        if (this.running) {
+            LOG.warn(String.format("InputObserver '%s' could not be registered. InputController already started.", observer));
+            return false;
+        }
+        observers.add(observer);
+        LOG.info(String.format("RSPIO InputObserver %s registered.", observer));
+        return true;
+    }
+
+    /**
+     * Runs an asynchronous action of a component.
+     * 
+     * The work of the action is run by a shared, bounded executor. If the executor is saturated,
+     * the returned stage fails with a {@link java.util.concurrent.RejectedExecutionException}.
+     * If the component is not registered (e.g. it has been unregistered while its last event was queued)
+     * or the controller is not running, the returned stage fails with an {@link IllegalStateException}.
+     * 
+     * @param component registered component
+     * @param action action
+     * @param blocking Should the component be blocked until the action has completed?
+     * @return stage of the action
+     */
+    public CompletionStage<?> runAsync(DigitalInputComponent component, AsyncAction action, boolean blocking) {
+        InputChannel channel = this.channels.get(component.getPin());
+        if (!this.running || channel == null || channel.component != component) {
+            // called by actions on the dispatcher, which must not be killed by an exception
+            CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException(String.format("Asynchronous action of %s could not be run. Component is not registered or controller is not running.", component)));
+            return failed;
+        }
+        return eventDispatcher.runAsync(channel, action, blocking);
+    }
+
+    /**
+     * Gets the number of asynchronous actions of a pin's component that have not completed yet.
+     * @param pin pin
+     * @return number of actions, 0 if no component is registered for the pin
+     */
+    public int getActionsInFlight(Pin pin) {
+        InputChannel channel = this.channels.get(pin);
+        return channel == null ? 0 : channel.inFlight.get();
+    }
+
+    /**
+     * Gets the index of a pin's state in the {@link #getStateSnapshot() snapshots}.
+     * The index is kept while the controller lives, so it can be looked up once and used with {@link #isHigh(int)}.
+     * @param pin pin
+     * @return index, -1 if the pin has never been listened to or is beyond the 64 tracked pins
+     */
+    public int getStateIndex(Pin pin) {
+        Integer slot = pinSlots.get(pin);
+        return slot == null || slot >= Long.SIZE ? -1 : slot;
+    }
+
+    /**
+     * Gets the last-known state of a pin. Does not lock.
+     * 
+     * The states are maintained for all pins the GPIO listeners are attached to, i.e. the pins of the registered components
+     * except for those of {@link ScannedInputComponent}s, and for all pins of {@link PortInputSource}s.
+     * They reflect the raw edges before any {@link InputFilter}.
+     * 
+     * @param pin pin
+     * @return state, null if the pin is not listened to (or beyond the 64 tracked pins) or the controller is not running
+     */
+    public PinState getState(Pin pin) {
+        int index = getStateIndex(pin);
+        if (!this.running || index < 0 || (!portPins.containsKey(pin) && (index >= pinTable.length || pinTable[index] == null))) {
+            return null;
+        }
+        return isHigh(index) ? PinState.HIGH : PinState.LOW;
+    }
+
+    /**
+     * Gets the last-known state of a pin by its index. Wait-free, so cheap enough for conditions in actions.
+     * @param stateIndex index of the pin (see {@link #getStateIndex(Pin)})
+     * @return Is the pin HIGH?
+     */
+    public boolean isHigh(int stateIndex) {
+        return (pinStates.get() & (1L << stateIndex)) != 0;
+    }
+
+    /**
+     * Gets the last-known states of all tracked pins at once. Wait-free.
+     * @return bit n is set if the pin with index n is HIGH (see {@link #getStateIndex(Pin)})
+     */
+    public long getStateSnapshot() {
+        return pinStates.get();
+    }
+
+    /**
+     * Sets the pins to be sampled at a fixed rate instead of being listened to. Takes effect on next {@link #start()}.
+     * 
+     * Meant for noisy pins that would flood the dispatcher with edges, or for pins without usable interrupts.
+     * All sampled pins are read in one go on the timer thread, and a change is only passed to the pin's component
+     * once it has been confirmed by successive samples (see {@link #setSampleConfirmations(int)}).
+     * Sampled and listened pins can be mixed freely.
+     * 
+     * @param sampledPins pins (default: none, at most 64)
+     */
+    public void setSampledPins(Pin... sampledPins) {
+        if (sampledPins.length > Long.SIZE) {
+            throw new IllegalArgumentException(String.format("At most %d pins can be sampled, but %d were given.", Long.SIZE, sampledPins.length));
+        }
+        this.sampledPins = new ArrayList<>(Arrays.asList(sampledPins));
+    }
+
+    /**
+     * Sets the interval between two samples of the sampled pins. Takes effect on next {@link #start()}.
+     * 
+     * The samples are run by the timer (see {@link #setTimingWheel(TimingWheel)}), so they are up to one tick late.
+     * 
+     * @param sampleInterval interval (default: 1 ms)
+     */
+    public void setSampleInterval(Duration sampleInterval) {
+        if (sampleInterval.isNegative() || sampleInterval.isZero()) {
+            throw new IllegalArgumentException(String.format("Sample interval must be positive, but was %s.", sampleInterval));
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Sets the number of successive samples that must agree before a change of a sampled pin is passed on. Takes effect on next {@link #start()}.
+     * @param sampleConfirmations number of samples (default: 3, i.e. 3 ms at the default interval)
+     */
+    public void setSampleConfirmations(int sampleConfirmations) {
+        if (sampleConfirmations < 1) {
+            throw new IllegalArgumentException(String.format("Sample confirmations must be positive, but was %d.", sampleConfirmations));
+        }
+        this.sampleConfirmations = sampleConfirmations;
+    }
+
+    /**
+     * Sets the maximum share of the sample interval spent sampling. Takes effect on next {@link #start()}.
+     * 
+     * If reading the sampled pins takes longer, the interval is stretched accordingly, so sampling never takes
+     * more than this share of the timer thread.
+     * 
+     * @param maxSamplingLoad percent of the interval (default: 10)
+     */
+    public void setMaxSamplingLoad(int maxSamplingLoad) {
+        if (maxSamplingLoad < 1 || maxSamplingLoad > 100) {
+            throw new IllegalArgumentException(String.format("Max. sampling load must be between 1 and 100 percent, but was %d.", maxSamplingLoad));
+        }
+        this.maxSamplingLoad = maxSamplingLoad;
+    }
+
+    /**
+     * Gets the duration of the samples of the sampled pins since the last {@link #start()}.
+     * @return statistics, null if no pins have been sampled
+     */
+    public LatencyStatistics getSamplingCost() {
+        return pinSampler == null ? null : pinSampler.getCost();
+    }
+
+    /**
+     * Sets the maximum number of threads running the work of {@link AsyncAction}s. Takes effect on next {@link #start()}.
+     * @param actionThreads number of threads (default: 4)
+     */
+    public void setActionThreads(int actionThreads) {
+        this.actionThreads = actionThreads;
+    }
+
+    /**
+     * Sets the maximum number of {@link AsyncAction}s waiting for a thread. Takes effect on next {@link #start()}.
+     * @param actionQueueCapacity capacity (default: 64)
+     */
+    public void setActionQueueCapacity(int actionQueueCapacity) {
+        this.actionQueueCapacity = actionQueueCapacity;
+    }
+
+    /**
+     * Sets the implementation of the dispatcher's event queue. Takes effect on next {@link #start()}.
+     * @param queueMode queue implementation (default: {@link QueueMode#LINKED})
+     */
+    public void setQueueMode(QueueMode queueMode) {
+        this.queueMode = queueMode;
+    }
+
+    /**
+     * Sets the capacity of the dispatcher's event queue (per lane). Takes effect on next {@link #start()}.
+     * @param queueCapacity capacity (default: 1024)
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Sets what the dispatcher does with events that do not fit into its queue. Takes effect on next {@link #start()}.
+     * @param overflowPolicy overflow policy (default: {@link OverflowPolicy#DROP_NEWEST})
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Sets the maximum number of events the dispatcher drains from its queue at once. Takes effect on next {@link #start()}.
+     * 
+     * Within a batch, transitions that cancel each other out are collapsed for components that opted in
+     * (see {@link DigitalInputComponent#isCoalescingTransitions()}), so the dispatcher recovers
+     * from a backlog quickly instead of replaying stale history.
+     * 
+     * @param batchSize batch size (default: 1, i.e. no batches)
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the time events of a priority class waited in the dispatcher's queues since the last {@link #start()}.
+     * @param priority priority class
+     * @return latency statistics, null if the controller has never been started
+     */
+    public LatencyStatistics getQueueWait(Priority priority) {
+        return eventDispatcher == null ? null : eventDispatcher.getQueueWait(priority);
+    }
+
+    /**
+     * Gets the event statistics (e.g. dropped events) of a pin since the last {@link #start()}.
+     * @param pin pin
+     * @return statistics, null if no component is registered for the pin or the controller has never been started
+     */
+    public PinStatistics getStatistics(Pin pin) {
+        InputChannel channel = this.channels.get(pin);
+        return channel == null ? null : channel.statistics;
+    }
+
+    /**
+     * Sets the number of dispatcher lanes. Takes effect on next {@link #start()}.
+     * 
+     * Events of one pin are always dispatched in order. With more than one lane, events of different pins
+     * are dispatched in parallel, so one slow action does not stall the other pins.
+     * 
+     * @param dispatchLanes number of lanes (default: 1)
+     */
+    public void setDispatchLanes(int dispatchLanes) {
+        this.dispatchLanes = dispatchLanes;
+    }
+
+    /**
+     * Sets the strategy of the dispatcher to wait for events. Takes effect on next {@link #start()}.
+     * @param waitStrategy wait strategy (default: {@link WaitStrategy#BLOCKING})
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Sets the timer for the timeouts of {@link InputFilter}s and blocks. Takes effect on next {@link #start()}.
+     * @param timingWheel timer (default: {@link TimingWheel#getDefault()})
+     */
+    public void setTimingWheel(TimingWheel timingWheel) {
+        this.timingWheel = timingWheel;
+    }
+
+    /**
+     * Gets the latency between the GPIO event and the call of the event callback, measured since the last {@link #start()}.
+     * 
+     * Use it to choose the {@link WaitStrategy} for a deployment.
+     * 
+     * @return latency statistics, null if the controller has never been started
+     */
+    public LatencyStatistics getDispatchLatency() {
+        return eventDispatcher == null ? null : eventDispatcher.getDispatchLatency();
+    }
+
+    private ThreadPoolExecutor createActionExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(actionThreads, actionThreads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(actionQueueCapacity), Threads.factory("rspio-action-"));
+        // no idle threads on a quiet device
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates the channel of a component and the sinks of the edges of its pins.
+     * The pins are provisioned by {@link #attach(Activation)} once the sinks are in the pin table.
+     * @param inputComponent component
+     * @return activation
+     */
+    private Activation activate(InputComponent inputComponent) {
+        DigitalInputComponent component = (DigitalInputComponent)inputComponent;
+        InputChannel channel = eventDispatcher.createChannel(component, priorities.get(component.getPin()));
+        this.channels.put(component.getPin(), channel);
+        Activation activation = new Activation(channel);
+        TimingWheel timer = timingWheel != null ? timingWheel : TimingWheel.getDefault();
+        EventDispatcher dispatcher = this.eventDispatcher;
+        if (component instanceof DirectInputComponent) {
+            DirectInputComponent directComponent = (DirectInputComponent)component;
+            directComponent.connect((state, timestamp) -> eventDispatcher.add(channel, state, timestamp), timer);
+            List<Pin> pins = directComponent.getInputPins();
+            if (pins.size() == 1 && !component.getInputFilters().isEmpty()) {
+                activation.sinks.put(pins.get(0), new InputFilterChain(component.getInputFilters(), (high, timestamp) -> directComponent.edge(0, high, timestamp), timer));
+                LOG.info(String.format("Input filters of %s: %s", component, component.getInputFilters()));
+            } else {
+                for (int i = 0; i < pins.size(); i++) {
+                    final int input = i;
+                    activation.sinks.put(pins.get(i), (high, timestamp) -> directComponent.edge(input, high, timestamp));
+                }
+            }
+            LOG.info(String.format("%s handles the edges of pins %s directly.", component, pins));
+        } else if (component instanceof ScannedInputComponent) {
+            ((ScannedInputComponent)component).connect((state, timestamp) -> eventDispatcher.add(channel, state, timestamp));
+        } else if (component.getInputFilters().isEmpty()) {
+            activation.sinks.put(component.getPin(), (high, timestamp) -> dispatcher.add(channel, high ? PinState.HIGH : PinState.LOW, timestamp));
+        } else {
+            activation.sinks.put(component.getPin(), new InputFilterChain(component.getInputFilters(), (high, timestamp) -> dispatcher.add(channel, high ? PinState.HIGH : PinState.LOW, timestamp), timer));
+            LOG.info(String.format("Input filters of %s: %s", component, component.getInputFilters()));
+        }
+        activations.put(inputComponent, activation);
+        return activation;
+    }
+
+    /**
+     * Provisions the pins of an activated component, and starts scanning a {@link ScannedInputComponent}.
+     * A {@link DirectInputComponent} is passed the states of its pins (see {@link DirectInputComponent#initialize(int, boolean)}).
+     * @param activation activation
+     */
+    private void attach(Activation activation) {
+        for (Pin pin : activation.sinks.keySet()) {
+            int slot = pinSlots.get(pin);
+            if (!listenedPins.containsKey(pin) && !portPins.containsKey(pin)) {
+                GpioPinDigitalInput digitalInput = gpioController.provisionDigitalInputPin(pin);
+                digitalInput.setShutdownOptions(true, PinState.LOW, PinPullResistance.OFF);
+                boolean high = digitalInput.isHigh();
+                updateState(slot, high);
+                initialize(activation, pin, high);
+                digitalInput.addListener(createGpioPinListener(slot));
+                listenedPins.put(pin, digitalInput);
+            } else {
+                initialize(activation, pin, readState(pin, slot));
+            }
+        }
+        if (activation.channel.component instanceof ScannedInputComponent) {
+            ScannedInputComponent component = (ScannedInputComponent)activation.channel.component;
+            GpioPinDigitalOutput[] outputs = component.getOutputPins().stream().map(pin -> {
+                GpioPinDigitalOutput output = gpioController.provisionDigitalOutputPin(pin, PinState.HIGH);
+                output.setShutdownOptions(true, PinState.LOW, PinPullResistance.OFF);
+                return output;
+            }).toArray(GpioPinDigitalOutput[]::new);
+            GpioPinDigitalInput[] inputs = component.getInputPins().stream().map(pin -> {
+                GpioPinDigitalInput input = gpioController.provisionDigitalInputPin(pin);
+                input.setShutdownOptions(true, PinState.LOW, PinPullResistance.OFF);
+                return input;
+            }).toArray(GpioPinDigitalInput[]::new);
+            activation.scannedPins.addAll(Arrays.asList(outputs));
+            activation.scannedPins.addAll(Arrays.asList(inputs));
+            activation.scanScheduler = new ScanScheduler(component, outputs, inputs, timingWheel != null ? timingWheel : TimingWheel.getDefault());
+            activation.scanScheduler.start();
+        }
+    }
+
+    /**
+     * Passes the state of a pin to a {@link DirectInputComponent}.
+     * @param activation activation of the component
+     * @param pin pin of the component
+     * @param high Is the pin HIGH?
+     */
+    private static void initialize(Activation activation, Pin pin, boolean high) {
+        if (activation.channel.component instanceof DirectInputComponent) {
+            DirectInputComponent directComponent = (DirectInputComponent)activation.channel.component;
+            directComponent.initialize(directComponent.getInputPins().indexOf(pin), high);
+        }
+    }
+
+    /**
+     * Reads the state of a pin that is already listened to or belongs to a port.
+     * @param pin pin
+     * @param slot slot of the pin
+     * @return Is the pin HIGH?
+     */
+    private boolean readState(Pin pin, int slot) {
+        GpioPinDigitalInput digitalInput = listenedPins.get(pin);
+        if (digitalInput != null) {
+            return digitalInput.isHigh();
+        }
+        if (slot < Long.SIZE) {
+            return (pinStates.get() & (1L << slot)) != 0;
+        }
+        PortInputSource source = portPins.get(pin);
+        return (source.read() & (1L << source.getPins().indexOf(pin))) != 0;
+    }
+
+    /**
+     * Releases the pins of a component that have been removed from the pin table, and removes its channel.
+     * @param activation activation
+     */
+    private void detach(Activation activation) {
+        if (activation.scanScheduler != null) {
+            activation.scanScheduler.stop();
+            gpioController.unprovisionPin(activation.scannedPins.toArray(new GpioPin[0]));
+        }
+        for (Pin pin : activation.sinks.keySet()) {
+            // the pin may have been passed to a new component
+            int slot = pinSlots.get(pin);
+            if (pinTable[slot] == null && listenedPins.containsKey(pin)) {
+                gpioController.unprovisionPin(listenedPins.remove(pin));
+                updateState(slot, false);
+            }
+        }
+        eventDispatcher.removeChannel(activation.channel);
+        channels.remove(activation.channel.component.getPin(), activation.channel);
+        LOG.info(activation.channel.statistics);
+    }
+
+    /**
+     * Gets all pins of a component.
+     * @param inputComponent component
+     * @return pins, including the one the component is registered with
+     */
+    private static List<Pin> getPins(InputComponent inputComponent) {
+        if (inputComponent instanceof DirectInputComponent) {
+            return ((DirectInputComponent)inputComponent).getInputPins();
+        }
+        if (inputComponent instanceof ScannedInputComponent) {
+            List<Pin> pins = new ArrayList<>(((ScannedInputComponent)inputComponent).getOutputPins());
+            pins.addAll(((ScannedInputComponent)inputComponent).getInputPins());
+            return pins;
+        }
+        return Collections.singletonList(inputComponent.getPin());
+    }
+
+    /**
+     * Publishes a new pin table without the sinks of the old activations and with the sinks of the new ones.
+     * Pins get their slots on first use.
+     * @param oldActivations activations of removed components
+     * @param newActivations activations of added components
+     */
+    private void updatePinTable(List<Activation> oldActivations, List<Activation> newActivations) {
+        newActivations.forEach(activation -> activation.sinks.keySet().forEach(pin -> pinSlots.computeIfAbsent(pin, key -> pinSlots.size())));
+        EdgeSink[] table = Arrays.copyOf(this.pinTable, pinSlots.size());
+        oldActivations.forEach(activation -> activation.sinks.keySet().forEach(pin -> table[pinSlots.get(pin)] = null));
+        newActivations.forEach(activation -> activation.sinks.forEach((pin, sink) -> table[pinSlots.get(pin)] = sink));
+        this.pinTable = table;
+    }
+
+    /**
+     * Creates the listener of a pin. It records the pin's state and finds the pin's current sink in the pin table
+     * by the pin's slot, so an edge reaches its sink without hashing or casting.
+     * @param slot slot of the pin
+     * @return listener
+     */
+    private GpioPinListenerDigital createGpioPinListener(final int slot) {
+        return (event) -> {
+            long timestamp = System.nanoTime();
+            boolean high = event.getState().isHigh();
+            updateState(slot, high);
+            EdgeSink sink = pinTable[slot];
+            if (sink != null) {
+                sink.edge(high, timestamp);
+            }
+        };
+    }
+
+    /**
+     * Reads the initial snapshot of a port and starts delivering its changes to the pin table.
+     * @param source port input source
+     */
+    private void startPortSource(PortInputSource source) {
+        int[] slots = source.getPins().stream().mapToInt(pin -> pinSlots.computeIfAbsent(pin, key -> pinSlots.size())).toArray();
+        long snapshot = source.read();
+        for (int bit = 0; bit < slots.length; bit++) {
+            updateState(slots[bit], (snapshot & (1L << bit)) != 0);
+        }
+        source.start(new PortFanOut(slots, snapshot));
+        LOG.info(String.format("PortInputSource '%s' started.", source.getName()));
+    }
+
+    /**
+     * Records the state of a pin in {@link #pinStates}. Lock-free: edges of different pins may be recorded concurrently.
+     * @param slot slot of the pin
+     * @param high Is the pin HIGH?
+     */
+    private void updateState(int slot, boolean high) {
+        if (slot >= Long.SIZE) {
+            return;
+        }
+        long bit = 1L << slot;
+        long states;
+        long newStates;
+        do {
+            states = pinStates.get();
+            newStates = high ? states | bit : states & ~bit;
+        } while (states != newStates && !pinStates.compareAndSet(states, newStates));
+    }
+
+    /**
+     * Passes the changes between the snapshots of a port to the sinks of the changed pins.
+     * 
+     * The changed pins are the set bits of the XOR of two snapshots, visited in order of their bits,
+     * so an unchanged port costs a single comparison.
+     */
+    private class PortFanOut implements PortListener {
+
+        /**
+         * Slots of the port's pins (indexed by bit).
+         */
+        private final int[] slots;
+
+        /**
+         * Previous snapshot (only accessed by the source's thread).
+         */
+        private long lastSnapshot;
+
+        PortFanOut(int[] slots, long initialSnapshot) {
+            this.slots = slots;
+            this.lastSnapshot = initialSnapshot;
+        }
+
+        @Override
+        public void portRead(long snapshot, long timestamp) {
+            long changed = (snapshot ^ lastSnapshot) & (slots.length == Long.SIZE ? -1L : (1L << slots.length) - 1);
+            lastSnapshot = snapshot;
+            EdgeSink[] table = pinTable;
+            while (changed != 0) {
+                int bit = Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                boolean high = (snapshot & (1L << bit)) != 0;
+                int slot = slots[bit];
+                updateState(slot, high);
+                EdgeSink sink = slot < table.length ? table[slot] : null;
+                if (sink != null) {
+                    sink.edge(high, timestamp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Channel, edge sinks and pins of a component while the controller is running.
+     */
+    private static class Activation {
+
+        final InputChannel channel;
+
+        /**
+         * Sinks of the edges of the component's listened pins.
+         */
+        final Map<Pin, EdgeSink> sinks = new LinkedHashMap<>();
+
+        /**
+         * Pins provisioned for a {@link ScannedInputComponent}.
+         */
+        final List<GpioPin> scannedPins = new ArrayList<>();
+
+        ScanScheduler scanScheduler;
+
+        Activation(InputChannel channel) {
+            this.channel = channel;
+        }
     }
 
 }
@@ -0,0 +1,135 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.TimeUnit;
+
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Stage of the filter chain of one pin (see {@link de.zaunkoenigweg.rspio.core.component.DigitalInputComponent#getInputFilters()}).
+ * 
+ * Filters run on the Pi4J callback thread, before events enter the dispatcher's queue, so the queue only sees
+ * clean transitions. A filter receives the edges of its upstream stage and passes edges to its downstream stage
+ * by calling {@link #emit(boolean, long)}, either immediately or later from a {@link #timeout(long)}.
+ * 
+ * A filter keeps the state of one pin, so each component needs its own filter instances.
+ * All methods of the filters of one chain are called with the chain's lock held, so filters need no synchronization themselves.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public abstract class InputFilter {
+
+    /**
+     * Value of {@link #deadline} if no timeout is scheduled.
+     */
+    private final static long NO_DEADLINE = Long.MIN_VALUE;
+
+    private EdgeSink downstream;
+
+    private Object lock;
+
+    /**
+     * Timeout of this filter (see {@link #schedule(long)}), rescheduled for every use.
+     */
+    private Timeout timeout;
+
+    /**
+     * Time the scheduled timeout expires, or {@link #NO_DEADLINE}.
+     */
+    private long deadline = NO_DEADLINE;
+
+    /**
+     * Number of edges that have been suppressed.
+     */
+    private long suppressed = 0;
+
+    /**
+     * Handles an edge from the upstream stage.
+     * @param high new state of the pin
+     * @param timestamp time of the edge (see {@link System#nanoTime()})
+     */
+    protected abstract void edge(boolean high, long timestamp);
+
+    /**
+     * Called when a timeout scheduled by {@link #schedule(long)} expires. 
+     * @param now current time (see {@link System#nanoTime()})
+     */
+    protected void timeout(long now) {
+    }
+
+    /**
+     * Resets the filter's state. Called when the chain is connected on start of the {@link InputController}.
+     */
+    protected abstract void reset();
+
+    /**
+     * Passes an edge to the downstream stage.
+     * @param high new state of the pin
+     * @param timestamp time of the edge (see {@link System#nanoTime()})
+     */
+    protected final void emit(boolean high, long timestamp) {
+        downstream.edge(high, timestamp);
+    }
+
+    /**
+     * Counts an edge as suppressed.
+     */
+    protected final void suppressed() {
+        suppressed++;
+    }
+
+    /**
+     * Schedules a call of {@link #timeout(long)}, replacing a timeout scheduled before.
+     * @param delayNanos delay in nanoseconds
+     */
+    protected final void schedule(long delayNanos) {
+        deadline = System.nanoTime() + delayNanos;
+        timeout.schedule(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cancels the scheduled timeout, if any.
+     */
+    protected final void cancelTimeout() {
+        deadline = NO_DEADLINE;
+        timeout.cancel();
+    }
+
+    private void expire() {
+        synchronized (lock) {
+            long now = System.nanoTime();
+            // the timeout may have been cancelled or replaced while this task was waiting for the lock
+            if (deadline == NO_DEADLINE || now - deadline < 0) {
+                return;
+            }
+            deadline = NO_DEADLINE;
+            timeout(now);
+        }
+    }
+
+    /**
+     * Connects this filter to its chain.
+     * @param downstream downstream stage
+     * @param lock lock of the chain
+     * @param timer timer for timeouts
+     */
+    final void connect(EdgeSink downstream, Object lock, TimingWheel timer) {
+        if (this.timeout != null) {
+            this.timeout.cancel();
+        }
+        this.downstream = downstream;
+        this.lock = lock;
+        this.timeout = timer.newTimeout(this::expire);
+        this.deadline = NO_DEADLINE;
+        reset();
+    }
+
+    /**
+     * @return number of edges suppressed by this filter
+     */
+    public long getSuppressed() {
+        synchronized (lock == null ? this : lock) {
+            return suppressed;
+        }
+    }
+}
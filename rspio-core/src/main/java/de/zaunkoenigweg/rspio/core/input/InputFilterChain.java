@@ -0,0 +1,37 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.List;
+
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Chain of {@link InputFilter}s of one pin, ending in the dispatcher.
+ * 
+ * The chain is called by the Pi4J callback thread and its filters' timeouts by the timer thread,
+ * so all filters of the chain are called with the chain's lock held.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class InputFilterChain implements EdgeSink {
+
+    private final InputFilter head;
+
+    /**
+     * Connects the filters.
+     * @param filters filters in order of processing (must not be empty)
+     * @param sink receives the filtered edges
+     * @param timer timer for the filters' timeouts
+     */
+    InputFilterChain(List<InputFilter> filters, EdgeSink sink, TimingWheel timer) {
+        for (int i = 0; i < filters.size(); i++) {
+            EdgeSink downstream = i + 1 < filters.size() ? filters.get(i + 1)::edge : sink;
+            filters.get(i).connect(downstream, this, timer);
+        }
+        this.head = filters.get(0);
+    }
+
+    @Override
+    public synchronized void edge(boolean high, long timestamp) {
+        head.edge(high, timestamp);
+    }
+}
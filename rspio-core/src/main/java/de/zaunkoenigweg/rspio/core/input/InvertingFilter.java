@@ -0,0 +1,23 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * Inverts the state of the pin, e.g. for buttons that connect to 3v3 instead of GND.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class InvertingFilter extends InputFilter {
+
+    @Override
+    protected void edge(boolean high, long timestamp) {
+        emit(!high, timestamp);
+    }
+
+    @Override
+    protected void reset() {
+    }
+
+    @Override
+    public String toString() {
+        return "InvertingFilter";
+    }
+}
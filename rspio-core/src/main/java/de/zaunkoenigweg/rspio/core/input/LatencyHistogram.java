@@ -0,0 +1,129 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies with logarithmic buckets (like an HDR histogram).
+ * 
+ * Each power of two is divided into {@value #SUB_BUCKETS} linear sub-buckets, so every recorded value is
+ * accurate to about 3%, from one nanosecond up to about one minute. Larger values are counted in the last bucket.
+ * 
+ * Recording does not lock and does not allocate, so it can be done for every event.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class LatencyHistogram {
+
+    private final static int SUB_BUCKET_BITS = 5;
+
+    private final static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Highest power of two that gets its own buckets (2^36 ns = 68 s).
+     */
+    private final static int MAX_MAGNITUDE = 36;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(bucketIndex(Long.MAX_VALUE) + 1);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records one measured latency.
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    private static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int magnitude = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_MAGNITUDE + 1);
+        if (magnitude > MAX_MAGNITUDE) {
+            return (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+        }
+        int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the highest value that is counted in the given bucket.
+     */
+    private static long highestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKETS) {
+            return bucketIndex;
+        }
+        int magnitude = bucketIndex / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        if (magnitude > MAX_MAGNITUDE) {
+            return Long.MAX_VALUE;
+        }
+        long subBucket = bucketIndex % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * @return number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return mean of all recorded latencies in nanoseconds (0 if nothing has been recorded)
+     */
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * @return largest recorded latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Gets the latency below which the given percentage of all recorded latencies lie.
+     * 
+     * The result is the upper bound of the bucket containing the percentile, so it is accurate to about 3%.
+     * 
+     * @param percentile percentile (0..100)
+     * @return latency in nanoseconds (0 if nothing has been recorded)
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100.0) / 100.0));
+        long counted = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            counted += buckets.get(i);
+            if (counted >= rank) {
+                return Math.min(highestValue(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d events, mean %d us, p50 %d us, p90 %d us, p99 %d us, max %d us", getCount(), getMeanNanos() / 1000,
+                getPercentileNanos(50) / 1000, getPercentileNanos(90) / 1000, getPercentileNanos(99) / 1000, getMaxNanos() / 1000);
+    }
+}
@@ -0,0 +1,64 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of measured latencies (count, min, mean, max).
+ * 
+ * Recording does not lock and does not allocate, so it can be done for every event.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class LatencyStatistics {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records one measured latency.
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        count.increment();
+        sum.add(nanos);
+        min.accumulate(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * @return number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return smallest recorded latency in nanoseconds (0 if nothing has been recorded)
+     */
+    public long getMinNanos() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * @return mean of all recorded latencies in nanoseconds (0 if nothing has been recorded)
+     */
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * @return largest recorded latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d events, min %d us, mean %d us, max %d us", getCount(), getMinNanos() / 1000, getMeanNanos() / 1000, getMaxNanos() / 1000);
+    }
+}
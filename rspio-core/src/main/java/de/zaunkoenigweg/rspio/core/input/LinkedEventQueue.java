@@ -0,0 +1,50 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * {@link EventQueue} backed by a bounded {@link LinkedBlockingQueue}.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class LinkedEventQueue implements EventQueue {
+
+    private final BlockingQueue<Event> queue;
+
+    /**
+     * Creates queue.
+     * @param capacity capacity
+     */
+    LinkedEventQueue(int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public boolean offer(InputChannel channel, PinState state, long timestamp) {
+        return queue.offer(new Event(channel, state, timestamp));
+    }
+
+    @Override
+    public boolean poll(Event target) {
+        Event event = queue.poll();
+        if (event == null) {
+            return false;
+        }
+        target.copyFrom(event);
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public InputChannel evict() {
+        Event event = queue.poll();
+        return event == null ? null : event.channel;
+    }
+}
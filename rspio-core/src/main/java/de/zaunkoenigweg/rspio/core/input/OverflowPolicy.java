@@ -0,0 +1,29 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * What the dispatcher does with an event that arrives while its queue is full.
+ * 
+ * Dropped and coalesced events are counted per pin, see {@link PinStatistics}.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The arriving event is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest queued event is dropped to make room for the arriving one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The arriving event is kept aside, and only the latest state per pin is kept.
+     * 
+     * Once the queue has room and all older events of the pin have been dispatched,
+     * the latest state is dispatched. So no pin loses its final state, but intermediate states get lost.
+     */
+    COALESCE_PER_PIN;
+}
@@ -0,0 +1,195 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Bounded multi-producer/single-consumer {@link EventQueue} whose slots are single longs.
+ *
+ * Works like the {@link RingBufferEventQueue}, but instead of a container object each event is packed into one long:
+ * <ul>
+ * <li>bit 0: new state of the pin (1 for HIGH),</li>
+ * <li>bits 1-20: id of the channel (see {@link InputChannel#id}),</li>
+ * <li>bits 21-63: lowest 43 bits of the timestamp.</li>
+ * </ul>
+ * The timestamp is restored relative to the time the event is polled, which is exact as long as events
+ * do not wait longer than 2^43 ns (about 2.4 hours) in the queue.
+ *
+ * The ring is a plain long array, so it holds no references, and a slot is written with one store.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+class PackedEventQueue implements EventQueue {
+
+    /**
+     * Maximum number of channels that can be packed.
+     */
+    final static int MAX_CHANNELS = 1 << 20;
+
+    private final static int TIMESTAMP_SHIFT = 21;
+
+    private final static long CHANNEL_MASK = MAX_CHANNELS - 1;
+
+    private final EventDispatcher dispatcher;
+
+    /**
+     * Packed events.
+     */
+    private final long[] slots;
+
+    /**
+     * Sequence number of each slot.
+     * A slot may be written for position p if its sequence is p, and read for position p if its sequence is p+1.
+     */
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    /**
+     * Next position to be claimed by a producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to be read by the consumer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates queue.
+     * @param capacity minimum capacity, rounded up to the next power of two
+     * @param dispatcher dispatcher resolving the channel ids
+     */
+    PackedEventQueue(int capacity, EventDispatcher dispatcher) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Capacity must be positive, but was %d.", capacity));
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.dispatcher = dispatcher;
+        this.mask = size - 1;
+        this.slots = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Packs an event into one long.
+     * @param channelId id of the channel
+     * @param high Is the new state HIGH?
+     * @param timestamp time of the event (see {@link System#nanoTime()})
+     * @return packed event
+     */
+    static long pack(int channelId, boolean high, long timestamp) {
+        return (timestamp << TIMESTAMP_SHIFT) | ((long) channelId << 1) | (high ? 1 : 0);
+    }
+
+    static int unpackChannelId(long event) {
+        return (int) ((event >>> 1) & CHANNEL_MASK);
+    }
+
+    static boolean unpackHigh(long event) {
+        return (event & 1) == 1;
+    }
+
+    /**
+     * Restores the timestamp of a packed event.
+     * @param event packed event
+     * @param now current time, not earlier than the event (see {@link System#nanoTime()})
+     * @return timestamp
+     */
+    static long unpackTimestamp(long event, long now) {
+        // the difference of the top-aligned timestamps wraps around like the 43 bit timestamps do
+        long age = ((now << TIMESTAMP_SHIFT) - (event & -(1L << TIMESTAMP_SHIFT))) >>> TIMESTAMP_SHIFT;
+        return now - age;
+    }
+
+    @Override
+    public boolean offer(InputChannel channel, PinState state, long timestamp) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        slots[index] = pack(channel.id, state == PinState.HIGH, timestamp);
+        // a full volatile store, like in RingBufferEventQueue, so the wakeup of a parking consumer cannot get lost
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    @Override
+    public boolean poll(Event target) {
+        while (true) {
+            long position = claimHead();
+            if (position < 0) {
+                return false;
+            }
+            int index = (int) position & mask;
+            long event = slots[index];
+            sequences.lazySet(index, position + slots.length);
+            InputChannel channel = dispatcher.getChannel(unpackChannelId(event));
+            if (channel == null) {
+                // the channel has been removed since
+                continue;
+            }
+            target.channel = channel;
+            target.state = unpackHigh(event) ? PinState.HIGH : PinState.LOW;
+            target.timestamp = unpackTimestamp(event, System.nanoTime());
+            return true;
+        }
+    }
+
+    @Override
+    public InputChannel evict() {
+        long position = claimHead();
+        if (position < 0) {
+            return null;
+        }
+        int index = (int) position & mask;
+        long event = slots[index];
+        sequences.lazySet(index, position + slots.length);
+        return dispatcher.getChannel(unpackChannelId(event));
+    }
+
+    /**
+     * Claims the slot at the head of the queue for reading.
+     * @return position of the claimed slot, -1 if the queue is empty
+     */
+    private long claimHead() {
+        long position = head.get();
+        while (true) {
+            long difference = sequences.get((int) position & mask) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                return -1;
+            }
+            position = head.get();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) position & mask) != position + 1;
+    }
+}
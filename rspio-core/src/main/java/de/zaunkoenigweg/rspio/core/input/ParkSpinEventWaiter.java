@@ -0,0 +1,31 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link EventWaiter} for {@link WaitStrategy#PARK_SPIN}: spins, then yields, then parks like {@link BlockingEventWaiter}.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class ParkSpinEventWaiter extends BlockingEventWaiter {
+
+    private final static int SPINS = 10000;
+
+    private final static int YIELDS = 100;
+
+    @Override
+    public void await(BooleanSupplier hasWork) {
+        for (int i = 0; i < SPINS; i++) {
+            if (hasWork.getAsBoolean()) {
+                return;
+            }
+        }
+        for (int i = 0; i < YIELDS; i++) {
+            if (hasWork.getAsBoolean()) {
+                return;
+            }
+            Thread.yield();
+        }
+        park(hasWork);
+    }
+}
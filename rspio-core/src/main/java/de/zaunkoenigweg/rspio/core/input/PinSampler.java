@@ -0,0 +1,210 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.GpioPinDigitalInput;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinPullResistance;
+import com.pi4j.io.gpio.PinState;
+
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Samples pins at a fixed rate instead of listening to their edges, on the thread of a {@link TimingWheel}.
+ *
+ * Each sample reads all pins into a bitmask. A pin changes its state only after the given number of successive samples agree,
+ * so noise shorter than that never leaves the sampler. Samples that do not change the confirmed states are not delivered
+ * at all, the others go to the {@link InputController} like the snapshots of any {@link PortInputSource}.
+ *
+ * The duration of every sample is measured. If sampling takes more than the maximum share of the interval,
+ * the interval is stretched, so the sampler's load on the timer thread stays bounded however slow reading the pins is.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+class PinSampler implements PortInputSource {
+
+    private final static Log LOG = LogFactory.getLog(PinSampler.class);
+
+    private final List<Pin> pins;
+
+    private final GpioPinDigitalInput[] inputs;
+
+    /**
+     * Configured interval between two samples.
+     */
+    private final long intervalNanos;
+
+    /**
+     * Maximum share of the interval spent sampling (percent).
+     */
+    private final int maxLoad;
+
+    /**
+     * Raw samples (indexed by sample number modulo confirmations, only accessed by the timer thread after {@link #start(PortListener)}).
+     */
+    private final long[] history;
+
+    private long sampleCount = 0;
+
+    /**
+     * Confirmed states of the pins (only accessed by the timer thread after {@link #start(PortListener)}).
+     */
+    private long confirmed;
+
+    /**
+     * Smoothed duration of a sample (only accessed by the timer thread).
+     */
+    private long averageCost = 0;
+
+    /**
+     * Current interval, stretched if sampling exceeds {@link #maxLoad} (only accessed by the timer thread).
+     */
+    private long currentIntervalNanos;
+
+    /**
+     * Flag: The interval has been stretched before (only accessed by the timer thread).
+     */
+    private boolean stretched = false;
+
+    /**
+     * Time of the next sample (see {@link System#nanoTime()}, only accessed by the timer thread after {@link #start(PortListener)}).
+     */
+    private long deadline;
+
+    /**
+     * Durations of the samples.
+     */
+    private final LatencyStatistics cost = new LatencyStatistics();
+
+    private final Timeout timeout;
+
+    private volatile PortListener listener;
+
+    private volatile boolean stopped = false;
+
+    /**
+     * Creates sampler and provisions the pins.
+     * @param pins pins to be sampled (at most 64)
+     * @param gpioController GPIO controller
+     * @param intervalNanos interval between two samples
+     * @param confirmations number of successive samples that must agree on a change
+     * @param maxLoad maximum share of the interval spent sampling (percent)
+     * @param timingWheel timer running the samples
+     */
+    PinSampler(List<Pin> pins, GpioController gpioController, long intervalNanos, int confirmations, int maxLoad, TimingWheel timingWheel) {
+        this.pins = Collections.unmodifiableList(pins);
+        this.inputs = pins.stream().map(pin -> {
+            GpioPinDigitalInput input = gpioController.provisionDigitalInputPin(pin);
+            input.setShutdownOptions(true, PinState.LOW, PinPullResistance.OFF);
+            return input;
+        }).toArray(GpioPinDigitalInput[]::new);
+        this.intervalNanos = intervalNanos;
+        this.currentIntervalNanos = intervalNanos;
+        this.maxLoad = maxLoad;
+        this.history = new long[confirmations];
+        this.timeout = timingWheel.newTimeout(this::sample);
+    }
+
+    @Override
+    public String getName() {
+        return "sampled pins";
+    }
+
+    @Override
+    public List<Pin> getPins() {
+        return pins;
+    }
+
+    @Override
+    public long read() {
+        long levels = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i].isHigh()) {
+                levels |= 1L << i;
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public void start(PortListener listener) {
+        this.listener = listener;
+        confirmed = read();
+        for (int i = 0; i < history.length; i++) {
+            history[i] = confirmed;
+        }
+        deadline = System.nanoTime() + intervalNanos;
+        timeout.schedule(intervalNanos, TimeUnit.NANOSECONDS);
+        LOG.info(String.format("Sampling pins %s every %d us (%d confirmations, max. load %d%%).", pins, intervalNanos / 1000, history.length, maxLoad));
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        timeout.cancel();
+        LOG.info(String.format("Sampling cost: %s (%d ns per pin)", cost, cost.getMeanNanos() / inputs.length));
+    }
+
+    /**
+     * Gets the durations of the samples.
+     * @return statistics
+     */
+    LatencyStatistics getCost() {
+        return cost;
+    }
+
+    private void sample() {
+        if (stopped) {
+            return;
+        }
+        long now = System.nanoTime();
+        long raw = read();
+        history[(int) (sampleCount++ % history.length)] = raw;
+        long highInAll = -1L;
+        long highInAny = 0;
+        for (long levels : history) {
+            highInAll &= levels;
+            highInAny |= levels;
+        }
+        long newConfirmed = (confirmed | highInAll) & highInAny;
+        if (newConfirmed != confirmed) {
+            confirmed = newConfirmed;
+            listener.portRead(newConfirmed, now);
+        }
+        long end = System.nanoTime();
+        cost.record(end - now);
+        bound(end - now);
+        deadline += currentIntervalNanos;
+        if (end - deadline >= 0) {
+            deadline = end + currentIntervalNanos;
+        }
+        timeout.schedule(deadline - end, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adapts the interval to the smoothed duration of the samples, so sampling takes at most {@link #maxLoad} percent of the time.
+     * @param sampleNanos duration of the last sample
+     */
+    private void bound(long sampleNanos) {
+        // smoothed, so a single preempted sample does not stretch the interval
+        averageCost += (sampleNanos - averageCost) / 32;
+        long boundedInterval = Math.max(intervalNanos, averageCost * 100 / maxLoad);
+        if (boundedInterval > intervalNanos && !stretched) {
+            stretched = true;
+            LOG.warn(String.format("Sampling pins %s takes %d us, interval stretched to %d us.", pins, averageCost / 1000, boundedInterval / 1000));
+        }
+        currentIntervalNanos = boundedInterval;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PinSampler (%s)", pins);
+    }
+}
@@ -0,0 +1,131 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.pi4j.io.gpio.Pin;
+
+/**
+ * Event statistics of one pin.
+ * 
+ * Latencies are measured from the time the GPIO listener received an event:
+ * <ul>
+ * <li>{@link #getQueueLatency()}: from the GPIO listener until the dispatcher takes the event from the queue</li>
+ * <li>{@link #getActionLatency()}: from taking the event from the queue until the component's event callback (incl. its action) has completed</li>
+ * </ul>
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class PinStatistics {
+
+    private final Pin pin;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder blocked = new LongAdder();
+
+    private final LongAdder kept = new LongAdder();
+
+    private final LongAdder lost = new LongAdder();
+
+    private final LongAdder suppressed = new LongAdder();
+
+    final LatencyHistogram queueLatency = new LatencyHistogram();
+
+    final LatencyHistogram actionLatency = new LatencyHistogram();
+
+    PinStatistics(Pin pin) {
+        this.pin = pin;
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void coalesced() {
+        coalesced.increment();
+    }
+
+    void blocked() {
+        blocked.increment();
+    }
+
+    void kept() {
+        kept.increment();
+    }
+
+    void lost() {
+        lost.increment();
+    }
+
+    void suppressed() {
+        suppressed.increment();
+    }
+
+    public Pin getPin() {
+        return pin;
+    }
+
+    /**
+     * @return number of events dropped because the queue was full (see {@link OverflowPolicy})
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return number of events replaced by a later event of the same pin (see {@link OverflowPolicy#COALESCE_PER_PIN}
+     * and {@link de.zaunkoenigweg.rspio.core.component.DigitalInputComponent#isCoalescingTransitions()})
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return number of events discarded because the pin was blocked (see {@link de.zaunkoenigweg.rspio.core.component.Blockable})
+     */
+    public long getBlocked() {
+        return blocked.sum();
+    }
+
+    /**
+     * @return number of events kept for replay because the pin was blocked (see {@link BlockedEventPolicy})
+     */
+    public long getKept() {
+        return kept.sum();
+    }
+
+    /**
+     * @return number of kept events lost because the buffer was full or a later event replaced them (see {@link BlockedEventPolicy})
+     */
+    public long getLost() {
+        return lost.sum();
+    }
+
+    /**
+     * @return number of events not dispatched to the component because an observer suppressed them (see {@link de.zaunkoenigweg.rspio.core.component.InputObserver})
+     */
+    public long getSuppressed() {
+        return suppressed.sum();
+    }
+
+    /**
+     * @return latency from the GPIO listener until the event is taken from the queue
+     */
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    /**
+     * @return latency from taking the event from the queue until the event callback has completed
+     */
+    public LatencyHistogram getActionLatency() {
+        return actionLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pin %s: %d dropped, %d coalesced, %d blocked, %d kept, %d lost, %d suppressed, queue latency: %s, action latency: %s", pin, getDropped(), getCoalesced(), getBlocked(), getKept(), getLost(), getSuppressed(), queueLatency, actionLatency);
+    }
+}
@@ -0,0 +1,45 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.List;
+
+import com.pi4j.io.gpio.Pin;
+
+/**
+ * Source of the input of a whole port, e.g. the 16 pins of an MCP23017 I/O expander read in one I2C transaction.
+ * 
+ * The source delivers snapshots of the port as bitmasks. The {@link InputController} finds the pins that changed
+ * by XOR with the previous snapshot and passes their edges to the registered components as if they came from
+ * GPIO listeners, so any {@link de.zaunkoenigweg.rspio.core.component.DigitalInputComponent} can be wired to an expander pin.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public interface PortInputSource {
+
+    /**
+     * @return name of the port (used for logging)
+     */
+    String getName();
+
+    /**
+     * Pins of the port. Pin n is bit n of the snapshots.
+     * @return pins (at most 64)
+     */
+    List<Pin> getPins();
+
+    /**
+     * Reads the port, e.g. to get the initial states before {@link #start(PortListener)}.
+     * @return snapshot (bit n is set if pin n is HIGH)
+     */
+    long read();
+
+    /**
+     * Starts delivering snapshots, e.g. on every interrupt of the expander.
+     * @param listener receiver of the snapshots
+     */
+    void start(PortListener listener);
+
+    /**
+     * Stops delivering snapshots.
+     */
+    void stop();
+}
@@ -0,0 +1,20 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * Receiver of the snapshots of a {@link PortInputSource}.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+@FunctionalInterface
+public interface PortListener {
+
+    /**
+     * Handles a snapshot of the port. The snapshot may be unchanged, e.g. if the source reads the port on every interrupt of the expander.
+     * 
+     * Must not be called concurrently for the same source.
+     * 
+     * @param snapshot states of the port's pins (bit n is set if pin n is HIGH, see {@link PortInputSource#getPins()})
+     * @param timestamp time the port has been read (see {@link System#nanoTime()})
+     */
+    void portRead(long snapshot, long timestamp);
+}
@@ -0,0 +1,39 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * Priority class of an input component, declared on registration at the {@link InputController}.
+ * 
+ * Each dispatcher lane keeps one queue per priority class and always serves higher classes first.
+ * To avoid starvation, the lane serves the classes in rounds: within one round, each class is served
+ * at most {@link #getWeight()} events before the lower classes get their turn.
+ * So an event of a higher class waits for at most a few events of lower classes.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public enum Priority {
+
+    /**
+     * E.g. emergency stop buttons.
+     */
+    HIGH(16),
+
+    /**
+     * Default priority.
+     */
+    NORMAL(4),
+
+    LOW(1);
+
+    private final int weight;
+
+    private Priority(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return maximum number of events served for this class in one round
+     */
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,49 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * Implementation of the queue that buffers events between Pi4J and the {@link EventDispatcher}.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public enum QueueMode {
+
+    /**
+     * Bounded {@link java.util.concurrent.LinkedBlockingQueue}.
+     * 
+     * Allocates a queue node and an event container for every event.
+     */
+    LINKED,
+
+    /**
+     * Preallocated ring of reusable event slots.
+     * 
+     * Producers (Pi4J callback threads) never lock and the steady state is allocation-free.
+     */
+    RING_BUFFER,
+
+    /**
+     * Preallocated ring of primitive longs, each holding channel, state and timestamp of an event.
+     * 
+     * Like {@link #RING_BUFFER}, but the ring holds no references and an event is written with a single store
+     * (see {@link de.zaunkoenigweg.rspio.core.component.PrimitiveInputComponent}).
+     */
+    PACKED;
+
+    /**
+     * Creates a new queue of this type.
+     * 
+     * @param capacity capacity
+     * @param dispatcher dispatcher the queue belongs to
+     * @return new event queue
+     */
+    EventQueue createQueue(int capacity, EventDispatcher dispatcher) {
+        switch (this) {
+        case RING_BUFFER:
+            return new RingBufferEventQueue(capacity);
+        case PACKED:
+            return new PackedEventQueue(capacity, dispatcher);
+        default:
+            return new LinkedEventQueue(capacity);
+        }
+    }
+}
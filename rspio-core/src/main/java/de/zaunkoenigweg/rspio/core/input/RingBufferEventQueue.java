@@ -0,0 +1,146 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.pi4j.io.gpio.PinState;
+
+/**
+ * Bounded multi-producer/single-consumer {@link EventQueue} built on a preallocated ring of reusable event slots.
+ *
+ * Every slot has a sequence number telling whether it may be written by a producer or read by the consumer
+ * (see Dmitry Vyukov's bounded queue). Producers claim a slot with a single CAS on the tail counter, so
+ * neither producers nor the consumer ever lock, and no objects are allocated once the ring has been created.
+ * 
+ * The head is advanced by CAS as well (uncontended in normal operation), so that producers
+ * can {@link #evict()} the oldest event while the consumer is polling.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+class RingBufferEventQueue implements EventQueue {
+
+    /**
+     * Reusable event slots.
+     */
+    private final Event[] slots;
+
+    /**
+     * Sequence number of each slot.
+     * A slot may be written for position p if its sequence is p, and read for position p if its sequence is p+1.
+     */
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    /**
+     * Next position to be claimed by a producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to be read by the consumer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates ring buffer.
+     * @param capacity minimum capacity, rounded up to the next power of two
+     */
+    RingBufferEventQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Capacity must be positive, but was %d.", capacity));
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.slots = new Event[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Event();
+            sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(InputChannel channel, PinState state, long timestamp) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        Event slot = slots[index];
+        slot.channel = channel;
+        slot.state = state;
+        slot.timestamp = timestamp;
+        // a full volatile store: the waiter reads the waiting thread right after publishing, and the consumer
+        // reads the sequence right after announcing that it parks (see BlockingEventWaiter)
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    @Override
+    public boolean poll(Event target) {
+        long position = claimHead();
+        if (position < 0) {
+            return false;
+        }
+        int index = (int) position & mask;
+        Event slot = slots[index];
+        target.copyFrom(slot);
+        slot.clear();
+        sequences.lazySet(index, position + slots.length);
+        return true;
+    }
+
+    @Override
+    public InputChannel evict() {
+        long position = claimHead();
+        if (position < 0) {
+            return null;
+        }
+        int index = (int) position & mask;
+        Event slot = slots[index];
+        InputChannel channel = slot.channel;
+        slot.clear();
+        sequences.lazySet(index, position + slots.length);
+        return channel;
+    }
+
+    /**
+     * Claims the slot at the head of the queue for reading.
+     * @return position of the claimed slot, -1 if the queue is empty
+     */
+    private long claimHead() {
+        long position = head.get();
+        while (true) {
+            long difference = sequences.get((int) position & mask) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                return -1;
+            }
+            position = head.get();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) position & mask) != position + 1;
+    }
+}
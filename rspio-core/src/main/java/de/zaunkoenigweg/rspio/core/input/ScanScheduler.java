@@ -0,0 +1,97 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.pi4j.io.gpio.GpioPinDigitalInput;
+import com.pi4j.io.gpio.GpioPinDigitalOutput;
+
+import de.zaunkoenigweg.rspio.core.component.ScanPort;
+import de.zaunkoenigweg.rspio.core.component.ScannedInputComponent;
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * Scans a {@link ScannedInputComponent} at a fixed rate, on the thread of a {@link TimingWheel}.
+ * 
+ * The scans are scheduled relative to the previous deadline, so the rate does not drift with the duration of the scans.
+ * If the timer falls behind by more than one interval, the missed scans are skipped.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class ScanScheduler implements ScanPort {
+
+    private final static Log LOG = LogFactory.getLog(ScanScheduler.class);
+
+    private final ScannedInputComponent component;
+
+    private final GpioPinDigitalOutput[] outputs;
+
+    private final GpioPinDigitalInput[] inputs;
+
+    private final long intervalNanos;
+
+    private final Timeout timeout;
+
+    /**
+     * Time of the next scan (see {@link System#nanoTime()}, only accessed by the timer thread after {@link #start()}).
+     */
+    private long deadline;
+
+    private volatile boolean stopped = false;
+
+    ScanScheduler(ScannedInputComponent component, GpioPinDigitalOutput[] outputs, GpioPinDigitalInput[] inputs, TimingWheel timingWheel) {
+        this.component = component;
+        this.outputs = outputs;
+        this.inputs = inputs;
+        this.intervalNanos = component.getScanInterval().toNanos();
+        this.timeout = timingWheel.newTimeout(this::scan);
+    }
+
+    void start() {
+        deadline = System.nanoTime() + intervalNanos;
+        timeout.schedule(intervalNanos, TimeUnit.NANOSECONDS);
+        LOG.info(String.format("Scanning %s every %d us.", component, intervalNanos / 1000));
+    }
+
+    void stop() {
+        stopped = true;
+        timeout.cancel();
+    }
+
+    private void scan() {
+        if (stopped) {
+            return;
+        }
+        long now = System.nanoTime();
+        component.scan(this, now);
+        deadline += intervalNanos;
+        if (now - deadline >= 0) {
+            deadline = now + intervalNanos;
+        }
+        timeout.schedule(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void drive(int output, boolean high) {
+        outputs[output].setState(high);
+    }
+
+    @Override
+    public int read() {
+        int levels = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i].isHigh()) {
+                levels |= 1 << i;
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScanScheduler (%s)", component);
+    }
+}
@@ -0,0 +1,104 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import de.zaunkoenigweg.rspio.core.component.BlockingToken;
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
+/**
+ * {@link BlockingToken} of the {@link EventDispatcher}.
+ * 
+ * A block increments the block counter of its scope (the channel's counter for a pin, the group's counter shared by its members,
+ * or the dispatcher's counter for all pins),
+ * so the listener path only has to read these counters to know whether an event is blocked.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+class ScopedBlock implements BlockingToken {
+
+    private final static Log LOG = LogFactory.getLog(ScopedBlock.class);
+
+    /**
+     * Description of the blocked scope.
+     */
+    private final String scope;
+
+    /**
+     * Block counters of the blocked scope.
+     */
+    private final AtomicInteger[] counters;
+
+    /**
+     * Called after the block has been released.
+     */
+    private final Runnable onRelease;
+
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /**
+     * Releases the block on timeout, null if there is no timeout.
+     */
+    private volatile Timeout timeout;
+
+    /**
+     * Creates and acquires the block.
+     * @param scope description of the blocked scope
+     * @param onRelease called after the block has been released
+     * @param counters block counters of the blocked scope
+     */
+    ScopedBlock(String scope, Runnable onRelease, AtomicInteger... counters) {
+        this.scope = scope;
+        this.onRelease = onRelease;
+        this.counters = counters;
+        for (AtomicInteger counter : counters) {
+            counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Releases the block after the given time, unless it is closed before.
+     * @param duration timeout
+     * @param timer timer
+     */
+    void releaseAfter(Duration duration, TimingWheel timer) {
+        timeout = timer.schedule(this::expire, duration);
+    }
+
+    private void expire() {
+        if (!released.get()) {
+            LOG.info(String.format("Block of %s released after timeout.", scope));
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        for (AtomicInteger counter : counters) {
+            counter.decrementAndGet();
+        }
+        Timeout timeout = this.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        onRelease.run();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Block of %s", scope);
+    }
+}
@@ -0,0 +1,49 @@
+package de.zaunkoenigweg.rspio.core.input;
+
+/**
+ * How the dispatcher threads wait for new events.
+ * 
+ * The strategies trade CPU usage for latency between a GPIO edge and the event callback.
+ * The measured latency of the running strategy is available as {@link InputController#getDispatchLatency()}.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public enum WaitStrategy {
+
+    /**
+     * Dispatcher threads sleep until an event arrives and are woken up by the Pi4J callback thread.
+     * 
+     * Lowest CPU usage, but every event pays for waking up a thread.
+     */
+    BLOCKING,
+
+    /**
+     * Dispatcher threads spin and yield for a short time before they go to sleep.
+     * 
+     * Bursts of events are handled without wake-up latency, an idle dispatcher uses no CPU.
+     */
+    PARK_SPIN,
+
+    /**
+     * Dispatcher threads never sleep but permanently check for new events.
+     * 
+     * Lowest latency, but each dispatcher lane occupies one CPU core completely.
+     * Only suitable for latency-critical installations with spare cores.
+     */
+    BUSY_SPIN;
+
+    /**
+     * Creates a new waiter implementing this strategy for one dispatcher lane.
+     * @return new waiter
+     */
+    EventWaiter createWaiter() {
+        switch (this) {
+        case PARK_SPIN:
+            return new ParkSpinEventWaiter();
+        case BUSY_SPIN:
+            return new BusySpinEventWaiter();
+        default:
+            return new BlockingEventWaiter();
+        }
+    }
+}
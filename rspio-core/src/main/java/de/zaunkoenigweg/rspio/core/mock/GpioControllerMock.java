@@ -2,9 +2,12 @@ package de.zaunkoenigweg.rspio.core.mock;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -27,6 +30,8 @@ import com.pi4j.io.gpio.PinMode;
 import com.pi4j.io.gpio.PinPullResistance;
 import com.pi4j.io.gpio.PinState;
 import com.pi4j.io.gpio.event.GpioPinDigitalStateChangeEvent;
+import com.pi4j.io.gpio.exception.GpioPinExistsException;
+import com.pi4j.io.gpio.exception.GpioPinNotProvisionedException;
 import com.pi4j.io.gpio.event.GpioPinListener;
 import com.pi4j.io.gpio.event.GpioPinListenerDigital;
 import com.pi4j.io.gpio.trigger.GpioTrigger;
@@ -34,7 +39,7 @@ import com.pi4j.io.gpio.trigger.GpioTrigger;
 /**
  * Mocks a @link {@link GpioController} of Pi4J.
  * 
- * This mock randomly fires events.
+ * This mock randomly fires events, or fires the events a test script asks for (see {@link #fireEvent(Pin, PinState)}).
  * 
  * @author mail@nikolaus-winter.de
  */
@@ -47,11 +52,26 @@ public class GpioControllerMock implements GpioController {
      */
     private final Map<Pin, PinState> pinStates = new HashMap<>();
 
+    /**
+     * Pins of the provisioned GPIO pins.
+     */
+    private final Map<GpioPin, Pin> provisionedPins = new IdentityHashMap<>();
+
     /**
      * Holds listeners for GPIO pin changes.
      */
     private final Map<Pin, GpioPinListenerDigital> pinListener = new HashMap<>();
 
+    /**
+     * Holds state of the provisioned output pins.
+     */
+    private final Map<Pin, PinState> outputStates = new ConcurrentHashMap<>();
+
+    /**
+     * Computes the state of input pins from the outputs (e.g. simulating a keypad matrix), null if the inputs only change on events.
+     */
+    private volatile Function<Pin, PinState> inputWiring;
+
     /**
      * Thread that produces random events.
      */
@@ -67,6 +87,18 @@ public class GpioControllerMock implements GpioController {
      */
     private final Random random = new Random();
     
+    /**
+     * Creates mock that only fires the events of {@link #fireEvent(Pin, PinState)}.
+     */
+    public GpioControllerMock() {
+    }
+
+    /**
+     * Creates mock that fires random events.
+     * @param initialWaitingTime millis before the first event
+     * @param timeBetweenEvents millis between two events
+     * @param numberOfEvents number of events
+     */
     public GpioControllerMock(long initialWaitingTime, long timeBetweenEvents, int numberOfEvents) {
         eventGenerator = new Thread(() -> {
             try {
@@ -92,11 +124,79 @@ public class GpioControllerMock implements GpioController {
         synchronized (pinStates) {
             pinStates.put(pin, PinState.HIGH);
         }
-        return new GpioPortDigitalInputMock((listener) -> {
+        return provisioned(pin, new GpioPortDigitalInputMock((listener) -> {
             synchronized (pinListener) {
                 this.pinListener.put(pin, listener);
             }
-        });
+        }, () -> getInputState(pin)));
+    }
+
+    @Override
+    public GpioPinDigitalOutput provisionDigitalOutputPin(Pin pin, PinState defaultState) {
+        outputStates.put(pin, defaultState);
+        return provisioned(pin, new GpioPinDigitalOutputMock(state -> outputStates.put(pin, state), defaultState));
+    }
+
+    @Override
+    public void unprovisionPin(GpioPin... pin) {
+        for (GpioPin gpioPin : pin) {
+            Pin provisionedPin;
+            synchronized (provisionedPins) {
+                provisionedPin = provisionedPins.remove(gpioPin);
+            }
+            if (provisionedPin == null) {
+                throw new GpioPinNotProvisionedException(null);
+            }
+            synchronized (pinStates) {
+                pinStates.remove(provisionedPin);
+            }
+            synchronized (pinListener) {
+                pinListener.remove(provisionedPin);
+            }
+            outputStates.remove(provisionedPin);
+        }
+    }
+
+    private <T extends GpioPin> T provisioned(Pin pin, T gpioPin) {
+        synchronized (provisionedPins) {
+            if (provisionedPins.containsValue(pin)) {
+                throw new GpioPinExistsException(pin);
+            }
+            provisionedPins.put(gpioPin, pin);
+        }
+        return gpioPin;
+    }
+
+    @Override
+    public GpioPinDigitalOutput provisionDigitalOutputPin(Pin pin) {
+        return provisionDigitalOutputPin(pin, PinState.LOW);
+    }
+
+    /**
+     * Gets the state of a provisioned output pin.
+     * @param pin pin
+     * @return state, null if the pin has not been provisioned as output
+     */
+    public PinState getOutputState(Pin pin) {
+        return outputStates.get(pin);
+    }
+
+    /**
+     * Lets the state of the input pins be computed from the outputs, e.g. to simulate a keypad matrix.
+     * @param inputWiring computes the state of an input pin (see {@link #getOutputState(Pin)}), null to return the state of the last event
+     */
+    public void setInputWiring(Function<Pin, PinState> inputWiring) {
+        this.inputWiring = inputWiring;
+    }
+
+    private PinState getInputState(Pin pin) {
+        Function<Pin, PinState> wiring = inputWiring;
+        if (wiring != null) {
+            return wiring.apply(pin);
+        }
+        synchronized (pinStates) {
+            return pinStates.get(pin);
+        }
     }
     
     @Override
@@ -105,6 +205,25 @@ public class GpioControllerMock implements GpioController {
         LOG.info("shutdown requested");
     }
 
+    /**
+     * Fires an event to the listener of a provisioned pin, on the calling thread (like the Pi4J callback threads).
+     * @param pin pin
+     * @param state new state of the pin
+     */
+    public void fireEvent(Pin pin, PinState state) {
+        GpioPinListenerDigital listener;
+        synchronized (pinListener) {
+            listener = pinListener.get(pin);
+        }
+        if (listener == null) {
+            throw new IllegalStateException(String.format("No listener for %s.", pin));
+        }
+        synchronized (pinStates) {
+            pinStates.put(pin, state);
+        }
+        listener.handleGpioPinDigitalStateChangeEvent(new GpioPinDigitalStateChangeEvent(this, null, state));
+    }
+
     private void fireRandomEvent() {
         Optional<Pin> randomPin = pinStates.keySet()
                                            .stream()
@@ -112,9 +231,7 @@ public class GpioControllerMock implements GpioController {
                                            .findFirst();
         Pin pin = randomPin.get();
         PinState newState = PinState.getInverseState(pinStates.get(pin));
-        pinStates.put(pin, newState);
-        GpioPinDigitalStateChangeEvent event = new GpioPinDigitalStateChangeEvent(this, null, newState);
-        pinListener.get(pin).handleGpioPinDigitalStateChangeEvent(event);
+        fireEvent(pin, newState);
         LOG.info(String.format("Fired event to %s: new state: %s", pin, newState));
     }
     
@@ -415,21 +532,11 @@ public class GpioControllerMock implements GpioController {
         throw new UnsupportedOperationException();
     }
 
-    @Override
-    public GpioPinDigitalOutput provisionDigitalOutputPin(Pin pin, PinState defaultState) {
-        throw new UnsupportedOperationException();
-    }
-
     @Override
     public GpioPinDigitalOutput provisionDigitalOutputPin(Pin pin, String name) {
         throw new UnsupportedOperationException();
     }
 
-    @Override
-    public GpioPinDigitalOutput provisionDigitalOutputPin(Pin pin) {
-        throw new UnsupportedOperationException();
-    }
-
     @Override
     public GpioPinAnalogInput provisionAnalogInputPin(GpioProvider provider, Pin pin, String name) {
         throw new UnsupportedOperationException();
@@ -640,11 +747,6 @@ public class GpioControllerMock implements GpioController {
         throw new UnsupportedOperationException();
     }
 
-    @Override
-    public void unprovisionPin(GpioPin... pin) {
-        throw new UnsupportedOperationException();
-
-    }
 
     @Override
     public boolean isShutdown() {
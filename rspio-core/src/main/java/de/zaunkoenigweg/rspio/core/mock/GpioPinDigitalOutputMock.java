@@ -0,0 +1,345 @@
+package de.zaunkoenigweg.rspio.core.mock;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import com.pi4j.io.gpio.GpioPinDigitalOutput;
+import com.pi4j.io.gpio.GpioPinShutdown;
+import com.pi4j.io.gpio.GpioProvider;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinMode;
+import com.pi4j.io.gpio.PinPullResistance;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.event.GpioPinListener;
+
+/**
+ * Mocks a @link {@link GpioPinDigitalOutput} of Pi4J.
+ * 
+ * This mock must be provided with a function (Consumer of {@link PinState}) that
+ * will be called whenever the state of the output is set.
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+public class GpioPinDigitalOutputMock implements GpioPinDigitalOutput {
+
+    private Consumer<PinState> setState;
+
+    private volatile PinState state;
+    
+    public GpioPinDigitalOutputMock(Consumer<PinState> setState, PinState defaultState) {
+        this.setState = setState;
+        this.state = defaultState;
+    }
+
+    @Override
+    public void setState(PinState state) {
+        this.state = state;
+        setState.accept(state);
+    }
+
+    @Override
+    public void setState(boolean state) {
+        setState(PinState.getState(state));
+    }
+
+    @Override
+    public void high() {
+        setState(PinState.HIGH);
+    }
+
+    @Override
+    public void low() {
+        setState(PinState.LOW);
+    }
+
+    @Override
+    public void toggle() {
+        setState(PinState.getInverseState(state));
+    }
+
+    @Override
+    public boolean isHigh() {
+        return state.isHigh();
+    }
+
+    @Override
+    public boolean isLow() {
+        return state.isLow();
+    }
+
+    @Override
+    public PinState getState() {
+        return state;
+    }
+
+    @Override
+    public boolean isState(PinState state) {
+        return this.state == state;
+    }
+
+    // ------------------------------------------------------
+    // unsupported operations
+    // ------------------------------------------------------
+
+    @Override
+    public Future<?> blink(long delay) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> blink(long delay, PinState blinkState) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> blink(long delay, long duration) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> blink(long delay, long duration, PinState blinkState) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration, Callable<Void> callback) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration, boolean blocking) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration, boolean blocking, Callable<Void> callback) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration, PinState pulseState) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration, PinState pulseState, Callable<Void> callback) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration, PinState pulseState, boolean blocking) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Future<?> pulse(long duration, PinState pulseState, boolean blocking, Callable<Void> callback) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public GpioProvider getProvider() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Pin getPin() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getName() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setTag(Object tag) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public Object getTag() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setProperty(String key, String value) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public boolean hasProperty(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getProperty(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getProperty(String key, String defaultValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeProperty(String key) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void clearProperties() {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void export(PinMode mode) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void export(PinMode mode, PinState defaultState) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void unexport() {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public boolean isExported() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setMode(PinMode mode) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public PinMode getMode() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isMode(PinMode mode) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setPullResistance(PinPullResistance resistance) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public PinPullResistance getPullResistance() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isPullResistance(PinPullResistance resistance) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addListener(GpioPinListener... listener) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Collection<GpioPinListener> getListeners() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addListener(List<? extends GpioPinListener> listeners) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public boolean hasListener(GpioPinListener... listener) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeListener(GpioPinListener... listener) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void removeListener(List<? extends GpioPinListener> listeners) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void removeAllListeners() {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public GpioPinShutdown getShutdownOptions() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setShutdownOptions(GpioPinShutdown options) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void setShutdownOptions(Boolean unexport) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void setShutdownOptions(Boolean unexport, PinState state) {
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void setShutdownOptions(Boolean unexport, PinState state, PinPullResistance resistance) {
+        // ignored, no shutdown executed as this is a mock
+    }
+
+    @Override
+    public void setShutdownOptions(Boolean unexport, PinState state, PinPullResistance resistance, PinMode mode) {
+        throw new UnsupportedOperationException();
+
+    }
+
+}
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.pi4j.io.gpio.GpioPinDigitalInput;
 import com.pi4j.io.gpio.GpioPinShutdown;
@@ -20,16 +21,27 @@ import com.pi4j.io.gpio.trigger.GpioTrigger;
  * Mocks a @link {@link GpioPinDigitalInput} of Pi4J.
  * 
  * This mock must/can be provided with a function (Consumer of {@link GpioPinListenerDigital}) that
- * will be called once a listener is set. 
+ * will be called once a listener is set. Optionally, it can be provided with the state of the pin (e.g. for scanned inputs).
  * 
  * @author mail@nikolaus-winter.de
  */
 public class GpioPortDigitalInputMock implements GpioPinDigitalInput {
 
     private Consumer<GpioPinListenerDigital> registerListener;
+
+    private Supplier<PinState> state;
     
+    /**
+     * Creates mock of a pin that is always HIGH (pulled up).
+     * @param registerListener registers the pin's listener
+     */
     public GpioPortDigitalInputMock(Consumer<GpioPinListenerDigital> registerListener) {
+        this(registerListener, () -> PinState.HIGH);
+    }
+
+    public GpioPortDigitalInputMock(Consumer<GpioPinListenerDigital> registerListener, Supplier<PinState> state) {
         this.registerListener = registerListener;
+        this.state = state;
     }
 
     /**
@@ -47,30 +59,30 @@ public class GpioPortDigitalInputMock implements GpioPinDigitalInput {
         }
     }
 
-    // ------------------------------------------------------
-    // unsupported operations
-    // ------------------------------------------------------
-
     @Override
     public boolean isHigh() {
-        throw new UnsupportedOperationException();
+        return getState().isHigh();
     }
 
     @Override
     public boolean isLow() {
-        throw new UnsupportedOperationException();
+        return getState().isLow();
     }
 
     @Override
     public PinState getState() {
-        throw new UnsupportedOperationException();
+        return state.get();
     }
 
     @Override
     public boolean isState(PinState state) {
-        throw new UnsupportedOperationException();
+        return getState() == state;
     }
 
+    // ------------------------------------------------------
+    // unsupported operations
+    // ------------------------------------------------------
+
     @Override
     public GpioProvider getProvider() {
         throw new UnsupportedOperationException();
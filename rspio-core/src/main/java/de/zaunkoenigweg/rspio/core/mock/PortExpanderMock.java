@@ -0,0 +1,135 @@
+package de.zaunkoenigweg.rspio.core.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinMode;
+import com.pi4j.io.gpio.PinPullResistance;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.impl.PinImpl;
+
+import de.zaunkoenigweg.rspio.core.input.PortInputSource;
+import de.zaunkoenigweg.rspio.core.input.PortListener;
+
+/**
+ * Simulates an I/O expander (e.g. an MCP23017) as {@link PortInputSource}.
+ *
+ * The inputs of the simulated port are set by a test script (see {@link #setPort(long)}, {@link #setPin(Pin, PinState)}).
+ * Like the expander's interrupt, every change makes the port deliver a snapshot, on the thread of the script.
+ * All inputs are HIGH (pulled up) initially.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+public class PortExpanderMock implements PortInputSource {
+
+    private final String name;
+
+    private final List<Pin> pins;
+
+    /**
+     * Current inputs of the port (guarded by this).
+     */
+    private long port;
+
+    /**
+     * Receiver of the snapshots, null if the port has not been started (guarded by this).
+     */
+    private PortListener listener;
+
+    /**
+     * Number of snapshots delivered (guarded by this).
+     */
+    private long reads = 0;
+
+    /**
+     * Creates simulated port.
+     * @param name name of the port, also the provider name of its pins
+     * @param width number of pins (16 for an MCP23017)
+     */
+    public PortExpanderMock(String name, int width) {
+        if (width < 1 || width > Long.SIZE) {
+            throw new IllegalArgumentException(String.format("Width must be between 1 and %d, but was %d.", Long.SIZE, width));
+        }
+        this.name = name;
+        List<Pin> pins = new ArrayList<>();
+        for (int bit = 0; bit < width; bit++) {
+            pins.add(new PinImpl(name, bit, String.format("%s_%d", name, bit), EnumSet.of(PinMode.DIGITAL_INPUT), EnumSet.of(PinPullResistance.PULL_UP)));
+        }
+        this.pins = Collections.unmodifiableList(pins);
+        this.port = width == Long.SIZE ? -1L : (1L << width) - 1;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<Pin> getPins() {
+        return pins;
+    }
+
+    /**
+     * Gets a pin of the port.
+     * @param bit bit of the pin in the snapshots
+     * @return pin
+     */
+    public Pin getPin(int bit) {
+        return pins.get(bit);
+    }
+
+    @Override
+    public synchronized long read() {
+        return port;
+    }
+
+    @Override
+    public synchronized void start(PortListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public synchronized void stop() {
+        this.listener = null;
+    }
+
+    /**
+     * Sets all inputs of the port at once, as if they changed between two reads of the expander.
+     * @param port new inputs (bit n is set if pin n is HIGH)
+     */
+    public synchronized void setPort(long port) {
+        this.port = port;
+        if (listener != null) {
+            reads++;
+            listener.portRead(port, System.nanoTime());
+        }
+    }
+
+    /**
+     * Sets one input of the port.
+     * @param pin pin of this port
+     * @param state new state
+     */
+    public synchronized void setPin(Pin pin, PinState state) {
+        int bit = pins.indexOf(pin);
+        if (bit < 0) {
+            throw new IllegalArgumentException(String.format("Pin %s does not belong to port %s.", pin, name));
+        }
+        setPort(state.isHigh() ? port | (1L << bit) : port & ~(1L << bit));
+    }
+
+    /**
+     * @return number of snapshots delivered since creation
+     */
+    public synchronized long getReads() {
+        return reads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PortExpanderMock '%s' (%d pins)", name, pins.size());
+    }
+}
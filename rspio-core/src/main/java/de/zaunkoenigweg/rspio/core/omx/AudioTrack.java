@@ -3,12 +3,15 @@ package de.zaunkoenigweg.rspio.core.omx;
 import java.io.PrintWriter;
 import java.nio.file.Path;
 import java.time.Duration;
-import java.time.Instant;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import de.zaunkoenigweg.rspio.core.concurrent.Threads;
+import de.zaunkoenigweg.rspio.core.timer.Timeout;
+import de.zaunkoenigweg.rspio.core.timer.TimingWheel;
+
 public class AudioTrack {
 
     private final static Log LOG = LogFactory.getLog(AudioTrack.class);
@@ -19,6 +22,12 @@ public class AudioTrack {
     PrintWriter omxInputWriter;
     State state = State.NOT_YET_STARTED;
 
+    /**
+     * Pauses the playback after the duration given to {@link #play(Duration)}.
+     * Pausing talks to the player, so it is handed off to the shared background executor instead of blocking the timer.
+     */
+    private final Timeout autoPause = TimingWheel.getDefault().newTimeout(() -> Threads.background().execute(this::autoPause));
+
     public AudioTrack(Path audioFile, AudioPlayer audioPlayer) {
         super();
         this.audioFile = audioFile;
@@ -26,25 +35,17 @@ public class AudioTrack {
     }
     
     private void autoPauseAfter(Duration duration) {
-        new Thread(() -> {
-            Instant start = Instant.now();
-            Instant now = Instant.now();
-            while(Duration.between(start, now).compareTo(duration)<0 && state==State.PLAYING) {
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    LOG.trace(String.format("audio track '%s': autopause was interrupted.", audioFile));
-                    return;
-                }
-                now = Instant.now();
-            }
-            if(state==State.PLAYING) {
-                LOG.trace(String.format("audio track '%s': autopause after %s.", audioFile, duration));
-                pause();
-            } else {
-                LOG.trace(String.format("audio track '%s': autopause after %s interrupted after %s because track is no longer played back.", audioFile, duration, Duration.between(start, now)));
-            }
-        }).start();
+        LOG.trace(String.format("audio track '%s': autopause after %s.", audioFile, duration));
+        autoPause.schedule(duration);
+    }
+
+    private void autoPause() {
+        if(state==State.PLAYING) {
+            LOG.trace(String.format("audio track '%s': autopause.", audioFile));
+            pause();
+        } else {
+            LOG.trace(String.format("audio track '%s': autopause skipped because track is no longer played back.", audioFile));
+        }
     }
 
     public State play() {
@@ -98,6 +99,7 @@ public class AudioTrack {
             case PLAYING:
                 state = send('p') ? State.PAUSED : State.PLAYING;
                 if(state==State.PAUSED) {
+                    autoPause.cancel();
                     audioPlayer.stopped();
                     LOG.trace(String.format("audio track '%s': paused.", audioFile));
                 } else {
@@ -153,6 +155,7 @@ public class AudioTrack {
                     state = State.TERMINATED;
                 }
                 if(state==State.TERMINATED) {
+                    autoPause.cancel();
                     LOG.trace(String.format("audio track '%s': playback stopped.", audioFile));
                     audioPlayer.stopped();
                     audioPlayer.unregister(this);
@@ -172,7 +175,7 @@ public class AudioTrack {
         try {
             omxProcess = new ProcessBuilder("bash", "-c", "omxplayer " + StringUtils.replace(this.audioFile.toString(), " ", "\\ ")).start();
             omxInputWriter = new PrintWriter(omxProcess.getOutputStream());
-            new Thread(() -> {
+            Threads.start("rspio-omx-" + audioFile.getFileName(), () -> {
                 try {
                     audioPlayer.register(this);
                     omxProcess.waitFor();
@@ -186,7 +189,7 @@ public class AudioTrack {
                 } catch (InterruptedException e) {
                     LOG.error(String.format("Playback of audio track '%s': Thread interrupted.", audioFile), e);
                 }
-            }).start();
+            });
             return true;
         } catch (Exception e) {
             LOG.error(String.format("Playback of audio track '%s' could not be started.", audioFile), e);
@@ -0,0 +1,88 @@
+package de.zaunkoenigweg.rspio.core.timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle of a task scheduled on a {@link TimingWheel}.
+ *
+ * A timeout is bound to its task and can be scheduled, rescheduled and cancelled any number of times,
+ * so code that keeps re-arming the same timeout (e.g. a debounce filter) does not allocate anything.
+ *
+ * The task is run by the wheel's thread, so it should not block the thread too long.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+public final class Timeout {
+
+    private final TimingWheel wheel;
+
+    private final Runnable task;
+
+    /**
+     * Tick of the wheel the timeout expires at (guarded by the wheel).
+     */
+    long expiryTick;
+
+    /**
+     * Neighbours in the bucket of the wheel (guarded by the wheel).
+     */
+    Timeout previous;
+    Timeout next;
+
+    /**
+     * Flag: Timeout is in a bucket of the wheel (guarded by the wheel).
+     */
+    boolean pending = false;
+
+    /**
+     * Incremented on every schedule/cancel, so that an expired run of the task can tell whether it is still wanted (guarded by the wheel).
+     */
+    long generation = 0;
+
+    Timeout(TimingWheel wheel, Runnable task) {
+        this.wheel = wheel;
+        this.task = task;
+    }
+
+    /**
+     * Schedules the task, replacing a pending schedule of this timeout.
+     * @param delay delay
+     * @param unit unit of the delay
+     */
+    public void schedule(long delay, TimeUnit unit) {
+        wheel.schedule(this, unit.toNanos(delay));
+    }
+
+    /**
+     * Schedules the task, replacing a pending schedule of this timeout.
+     * @param delay delay
+     */
+    public void schedule(Duration delay) {
+        wheel.schedule(this, delay.toNanos());
+    }
+
+    /**
+     * Cancels the task, if it is pending.
+     * @return true, if the timeout was pending
+     */
+    public boolean cancel() {
+        return wheel.cancel(this);
+    }
+
+    /**
+     * @return Is the timeout scheduled and not yet expired?
+     */
+    public boolean isPending() {
+        return wheel.isPending(this);
+    }
+
+    Runnable getTask() {
+        return task;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Timeout (%s)", task);
+    }
+}
@@ -0,0 +1,299 @@
+package de.zaunkoenigweg.rspio.core.timer;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Timer service of RSPIO: a hashed timing wheel run by a single thread.
+ *
+ * Time is divided into ticks. Each timeout is hashed into the bucket of the tick it expires at,
+ * so scheduling and cancelling are O(1), regardless of the number of pending timeouts.
+ * Timeouts expire at the first tick at or after their deadline, i.e. never early and at most one tick late.
+ *
+ * The thread only wakes up at ticks whose bucket holds a timeout, and sleeps without deadline while
+ * no timeout is pending, so an idle device is not woken up at all.
+ *
+ * All timed behaviour (debouncing, auto-pause, ...) should share the {@link #getDefault() default} wheel
+ * instead of starting threads of its own.
+ *
+ * @author mail@nikolaus-winter.de
+ */
+public class TimingWheel {
+
+    private final static Log LOG = LogFactory.getLog(TimingWheel.class);
+
+    private static TimingWheel defaultWheel;
+
+    /**
+     * Duration of a tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * Buckets of the wheel, each a linked list of timeouts (indexed by expiry tick modulo wheel size).
+     */
+    private final Timeout[] buckets;
+
+    private final int mask;
+
+    /**
+     * Time of tick 0 (see {@link System#nanoTime()}).
+     */
+    private final long startTime;
+
+    /**
+     * Last tick whose timeouts have been expired.
+     */
+    private long processedTick = 0;
+
+    /**
+     * Number of timeouts in the buckets.
+     */
+    private int pendingCount = 0;
+
+    /**
+     * Tick the waiting thread will wake up at, {@link Long#MAX_VALUE} if it waits for a timeout to be scheduled,
+     * {@link Long#MIN_VALUE} if it is not waiting.
+     */
+    private long wakeUpTick = Long.MIN_VALUE;
+
+    /**
+     * Expired timeouts to be run by the thread, and their generation at the time of expiry.
+     */
+    private Timeout[] expired = new Timeout[16];
+    private long[] expiredGenerations = new long[16];
+
+    private boolean stopped = false;
+
+    private final Thread thread;
+
+    /**
+     * Gets the wheel shared by all timed behaviour of RSPIO. The wheel is created on first use.
+     * @return default wheel (ticks of 1 ms)
+     */
+    public synchronized static TimingWheel getDefault() {
+        if (defaultWheel == null) {
+            defaultWheel = new TimingWheel();
+        }
+        return defaultWheel;
+    }
+
+    /**
+     * Creates wheel with ticks of 1 ms and 512 buckets.
+     */
+    public TimingWheel() {
+        this(Duration.ofMillis(1), 512);
+    }
+
+    /**
+     * Creates wheel and starts its thread.
+     * @param tick duration of a tick, i.e. resolution of the timeouts
+     * @param wheelSize number of buckets, rounded up to the next power of two
+     */
+    public TimingWheel(Duration tick, int wheelSize) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException(String.format("Tick must be positive, but was %s.", tick));
+        }
+        if (wheelSize < 1) {
+            throw new IllegalArgumentException(String.format("Wheel size must be positive, but was %d.", wheelSize));
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = tick.toNanos();
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.thread = new Thread(this::run, "rspio-timer");
+        this.thread.setDaemon(true);
+        LOG.info(String.format("TimingWheel started (tick %s, %d buckets).", tick, size));
+        this.thread.start();
+    }
+
+    /**
+     * Creates a timeout for the given task. The timeout is not scheduled yet.
+     * @param task task to be run by the wheel's thread when the timeout expires
+     * @return timeout
+     */
+    public Timeout newTimeout(Runnable task) {
+        return new Timeout(this, task);
+    }
+
+    /**
+     * Schedules a task.
+     * @param task task to be run by the wheel's thread when the timeout expires
+     * @param delay delay
+     * @return timeout, e.g. for cancelling the task
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        Timeout timeout = newTimeout(task);
+        timeout.schedule(delay);
+        return timeout;
+    }
+
+    /**
+     * Stops the wheel's thread. Pending timeouts do not expire anymore.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        notify();
+    }
+
+    synchronized void schedule(Timeout timeout, long delayNanos) {
+        if (stopped) {
+            throw new IllegalStateException("TimingWheel has been stopped.");
+        }
+        if (timeout.pending) {
+            unlink(timeout);
+        }
+        timeout.generation++;
+        long deadline = System.nanoTime() + Math.max(0, delayNanos) - startTime;
+        long tick = deadline / tickNanos + (deadline % tickNanos == 0 ? 0 : 1);
+        if (tick <= processedTick) {
+            tick = processedTick + 1;
+        }
+        timeout.expiryTick = tick;
+        link(timeout);
+        if (tick < wakeUpTick) {
+            notify();
+        }
+    }
+
+    synchronized boolean cancel(Timeout timeout) {
+        timeout.generation++;
+        if (!timeout.pending) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    synchronized boolean isPending(Timeout timeout) {
+        return timeout.pending;
+    }
+
+    private void link(Timeout timeout) {
+        int index = (int) timeout.expiryTick & mask;
+        timeout.previous = null;
+        timeout.next = buckets[index];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        buckets[index] = timeout;
+        timeout.pending = true;
+        pendingCount++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[(int) timeout.expiryTick & mask] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.pending = false;
+        pendingCount--;
+    }
+
+    private void run() {
+        while (true) {
+            int count;
+            synchronized (this) {
+                if (stopped) {
+                    break;
+                }
+                long now = System.nanoTime();
+                count = expire((now - startTime) / tickNanos);
+                if (count == 0) {
+                    try {
+                        await(now);
+                    } catch (InterruptedException e) {
+                        LOG.error("TimingWheel interrupted.", e);
+                        stopped = true;
+                    }
+                    continue;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                Timeout timeout = expired[i];
+                expired[i] = null;
+                synchronized (this) {
+                    // the timeout has been cancelled or rescheduled since it expired
+                    if (timeout.generation != expiredGenerations[i]) {
+                        continue;
+                    }
+                }
+                try {
+                    timeout.getTask().run();
+                } catch (RuntimeException e) {
+                    LOG.error(String.format("%s failed.", timeout), e);
+                }
+            }
+        }
+        LOG.info("TimingWheel stopped.");
+    }
+
+    /**
+     * Removes all timeouts expired up to the given tick from the wheel.
+     * @param currentTick current tick
+     * @return number of expired timeouts in {@link #expired}
+     */
+    private int expire(long currentTick) {
+        if (currentTick <= processedTick) {
+            return 0;
+        }
+        int count = 0;
+        // if the thread fell behind more than a full turn, every bucket is visited once
+        long firstTick = Math.max(processedTick + 1, currentTick - buckets.length + 1);
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Timeout timeout = buckets[(int) tick & mask];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.expiryTick <= currentTick) {
+                    unlink(timeout);
+                    if (count == expired.length) {
+                        expired = Arrays.copyOf(expired, count * 2);
+                        expiredGenerations = Arrays.copyOf(expiredGenerations, count * 2);
+                    }
+                    expired[count] = timeout;
+                    expiredGenerations[count] = timeout.generation;
+                    count++;
+                }
+                timeout = next;
+            }
+        }
+        processedTick = currentTick;
+        return count;
+    }
+
+    /**
+     * Waits until the next tick with a non-empty bucket, or until a timeout is scheduled if none is pending.
+     * @param now current time
+     * @throws InterruptedException if interrupted
+     */
+    private void await(long now) throws InterruptedException {
+        if (pendingCount == 0) {
+            wakeUpTick = Long.MAX_VALUE;
+            wait();
+        } else {
+            long tick = processedTick + 1;
+            while (buckets[(int) tick & mask] == null) {
+                tick++;
+            }
+            wakeUpTick = tick;
+            long delay = startTime + tick * tickNanos - now;
+            if (delay > 0) {
+                wait(delay / 1_000_000, (int) (delay % 1_000_000));
+            }
+        }
+        wakeUpTick = Long.MIN_VALUE;
+    }
+}
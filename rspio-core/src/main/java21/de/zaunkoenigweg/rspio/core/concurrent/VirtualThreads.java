@@ -0,0 +1,20 @@
+package de.zaunkoenigweg.rspio.core.concurrent;
+
+/**
+ * Access to virtual threads (variant for Java 21 and newer, see multi-release jar).
+ * 
+ * @author mail@nikolaus-winter.de
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static Thread newThread(String name, Runnable task) {
+        return Thread.ofVirtual().name(name).unstarted(task);
+    }
+}
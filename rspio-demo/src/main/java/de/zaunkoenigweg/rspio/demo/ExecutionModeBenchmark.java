@@ -0,0 +1,142 @@
+package de.zaunkoenigweg.rspio.demo;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.RaspiPin;
+
+import de.zaunkoenigweg.rspio.audio.AudioTrack;
+import de.zaunkoenigweg.rspio.audio.dummy.DummyAudioPlayer;
+import de.zaunkoenigweg.rspio.core.component.PushButton;
+import de.zaunkoenigweg.rspio.core.concurrent.ExecutionMode;
+import de.zaunkoenigweg.rspio.core.concurrent.Threads;
+import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.mock.GpioControllerMock;
+
+/**
+ * Compares memory and thread usage of the {@link ExecutionMode}s.
+ * 
+ * Presses {@link PushButton}s of a started {@link InputController} (simulated by {@link GpioControllerMock#fireEvent(Pin, PinState)}).
+ * Each press runs an {@link de.zaunkoenigweg.rspio.core.component.AsyncAction} that plays an audio track (with auto-pause)
+ * and waits on the action executor until the benchmark releases it, like an action waiting for its track.
+ * Reports the number of platform threads and the resident set size of the JVM while all actions are in flight.
+ * 
+ * Usage: <code>ExecutionModeBenchmark [PLATFORM|VIRTUAL] [number of presses]</code>
+ * (VIRTUAL requires Java 21 and the rspio-core jar on the class path, as it is a multi-release jar;
+ * Spring needs <code>--add-opens java.base/java.lang=ALL-UNNAMED</code> on Java 21).
+ */
+public class ExecutionModeBenchmark {
+
+    private final static int BUTTONS = 20;
+
+    private final static GpioControllerMock GPIO_CONTROLLER = new GpioControllerMock();
+
+    @Configuration
+    static class Context {
+
+        @Bean
+        public InputController inputController() {
+            return new InputController();
+        }
+
+        @Bean
+        public Supplier<GpioController> gpioControllerSupplier() {
+            return () -> GPIO_CONTROLLER;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExecutionMode executionMode = args.length > 0 ? ExecutionMode.valueOf(args[0]) : ExecutionMode.PLATFORM;
+        int presses = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Threads.setExecutionMode(executionMode);
+
+        DummyAudioPlayer audioPlayer = new DummyAudioPlayer();
+        CountDownLatch playing = new CountDownLatch(presses);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(presses);
+        AtomicInteger tracks = new AtomicInteger();
+
+        try (AnnotationConfigApplicationContext springContext = new AnnotationConfigApplicationContext(Context.class)) {
+            InputController inputController = springContext.getBean(InputController.class);
+            // one thread per action in flight
+            inputController.setActionThreads(presses);
+            Pin[] pins = new Pin[BUTTONS];
+            for (int i = 0; i < BUTTONS; i++) {
+                pins[i] = RaspiPin.getPinByAddress(i);
+                PushButton button = new PushButton("Button " + i, pins[i]);
+                button.setAction(blockable -> inputController.runAsync(button, executor -> CompletableFuture.runAsync(() -> {
+                    AudioTrack track = audioPlayer.track(Paths.get(String.format("track-%03d.mp3", tracks.getAndIncrement())));
+                    track.play(Duration.ofMinutes(1));
+                    playing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    track.stop();
+                    stopped.countDown();
+                }, executor), false));
+                inputController.register(button);
+            }
+            if (!inputController.start()) {
+                return;
+            }
+            System.gc();
+            long rssBefore = residentSetSize();
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < presses; i++) {
+                GPIO_CONTROLLER.fireEvent(pins[i % BUTTONS], PinState.LOW);
+                GPIO_CONTROLLER.fireEvent(pins[i % BUTTONS], PinState.HIGH);
+            }
+            playing.await();
+            long startup = System.nanoTime() - start;
+            long rssDuring = residentSetSize();
+            int threadsDuring = ManagementFactory.getThreadMXBean().getThreadCount();
+            int inFlight = 0;
+            for (Pin pin : pins) {
+                inFlight += inputController.getActionsInFlight(pin);
+            }
+            release.countDown();
+            stopped.await();
+
+            System.out.printf("Execution mode:     %s (requested %s, Java %s)%n", Threads.getExecutionMode(), executionMode, System.getProperty("java.version"));
+            System.out.printf("Presses/tracks:     %d on %d buttons (all playing after %d ms)%n", presses, BUTTONS, startup / 1_000_000);
+            System.out.printf("Actions in flight:  %d%n", inFlight);
+            System.out.printf("Platform threads:   %d -> %d%n", threadsBefore, threadsDuring);
+            System.out.printf("RSS:                %d kB -> %d kB (+%d kB)%n", rssBefore, rssDuring, rssDuring - rssBefore);
+            inputController.stop();
+        }
+    }
+
+    /**
+     * Reads the resident set size of this process from /proc (Linux only).
+     * @return RSS in kB, -1 if not available
+     */
+    private static long residentSetSize() throws IOException {
+        if (!Files.exists(Paths.get("/proc/self/status"))) {
+            return -1;
+        }
+        return Files.readAllLines(Paths.get("/proc/self/status")).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("[^0-9]", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElse(-1);
+    }
+}
@@ -0,0 +1,122 @@
+package de.zaunkoenigweg.rspio.demo;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.RaspiPin;
+
+import de.zaunkoenigweg.rspio.core.component.MatrixKeypad;
+import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.mock.GpioControllerMock;
+
+/**
+ * Scans a simulated 4x4 {@link MatrixKeypad} wired up in the {@link GpioControllerMock} and reports
+ * the cost of the scans at the given scan interval.
+ * 
+ * The script pushes every key once, with contact bounce of 5 ms on push and release, and checks that
+ * exactly one push and one release per key reach the action.
+ * 
+ * Usage: <code>MatrixKeypadBenchmark [scan interval in ms] [hold time in ms]</code>
+ */
+public class MatrixKeypadBenchmark {
+
+    private final static Pin[] ROWS = { RaspiPin.GPIO_00, RaspiPin.GPIO_01, RaspiPin.GPIO_02, RaspiPin.GPIO_03 };
+    private final static Pin[] COLUMNS = { RaspiPin.GPIO_04, RaspiPin.GPIO_05, RaspiPin.GPIO_06, RaspiPin.GPIO_07 };
+
+    private final static GpioControllerMock GPIO_CONTROLLER = new GpioControllerMock();
+
+    /**
+     * Simulated contacts (bit row * 4 + column set if closed).
+     */
+    private static volatile long contacts = 0;
+
+    private final static AtomicLong PUSHES = new AtomicLong();
+    private final static AtomicLong RELEASES = new AtomicLong();
+
+    private static long scanIntervalMillis = 10;
+
+    @Configuration
+    static class Context {
+
+        @Bean
+        public InputController inputController() {
+            return new InputController();
+        }
+
+        @Bean
+        public Supplier<GpioController> gpioControllerSupplier() {
+            return () -> GPIO_CONTROLLER;
+        }
+
+        @Bean
+        public MatrixKeypad matrixKeypad() {
+            MatrixKeypad matrixKeypad = new MatrixKeypad("Keypad", ROWS, COLUMNS);
+            matrixKeypad.setScanInterval(Duration.ofMillis(scanIntervalMillis));
+            matrixKeypad.setAction((key, pressed, blockable) -> (pressed ? PUSHES : RELEASES).incrementAndGet());
+            return matrixKeypad;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        scanIntervalMillis = args.length > 0 ? Long.parseLong(args[0]) : 10;
+        long holdMillis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+
+        // a column reads LOW if a closed contact connects it to a row driven LOW
+        GPIO_CONTROLLER.setInputWiring(pin -> {
+            for (int column = 0; column < COLUMNS.length; column++) {
+                if (COLUMNS[column].equals(pin)) {
+                    for (int row = 0; row < ROWS.length; row++) {
+                        if ((contacts & (1L << (row * 4 + column))) != 0 && GPIO_CONTROLLER.getOutputState(ROWS[row]) == PinState.LOW) {
+                            return PinState.LOW;
+                        }
+                    }
+                }
+            }
+            return PinState.HIGH;
+        });
+
+        try (AnnotationConfigApplicationContext springContext = new AnnotationConfigApplicationContext(Context.class)) {
+            InputController inputController = springContext.getBean(InputController.class);
+            MatrixKeypad matrixKeypad = springContext.getBean(MatrixKeypad.class);
+            if (!inputController.start()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            for (int key = 0; key < 16; key++) {
+                bounce(key);
+                contacts |= 1L << key;
+                Thread.sleep(holdMillis);
+                bounce(key);
+                contacts &= ~(1L << key);
+                Thread.sleep(holdMillis);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            long scans = matrixKeypad.getScans();
+            System.out.printf("Scan interval:      %d ms%n", scanIntervalMillis);
+            System.out.printf("Keys:               16 pushed and released, action got %d pushes, %d releases%n", PUSHES.get(), RELEASES.get());
+            System.out.printf("Scans:              %d in %d ms, mean %d us per scan (incl. mock)%n", scans, elapsed / 1_000_000, scans == 0 ? 0 : matrixKeypad.getScanNanos() / scans / 1000);
+            System.out.printf("CPU:                %.3f %% of one core%n", 100.0 * matrixKeypad.getScanNanos() / elapsed);
+            inputController.stop();
+        }
+    }
+
+    /**
+     * Toggles a contact for 5 ms, like a bouncing key.
+     */
+    private static void bounce(int key) throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            contacts ^= 1L << key;
+            Thread.sleep(0, 500_000);
+        }
+    }
+}
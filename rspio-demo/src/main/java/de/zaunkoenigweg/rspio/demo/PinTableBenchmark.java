@@ -0,0 +1,108 @@
+package de.zaunkoenigweg.rspio.demo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.RaspiPin;
+
+import de.zaunkoenigweg.rspio.core.component.PushButton;
+import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.input.QueueMode;
+import de.zaunkoenigweg.rspio.core.input.WaitStrategy;
+import de.zaunkoenigweg.rspio.core.mock.GpioControllerMock;
+
+/**
+ * Benchmark of the way from a GPIO edge to the dispatcher's queue.
+ *
+ * Registers a {@link PushButton} for every pin of a started {@link InputController} and fires edges at them through
+ * {@link GpioControllerMock#fireEvent(Pin, PinState)}, so each edge takes the controller's real listener path
+ * (pin table lookup, state tracking, queueing into a ring buffer). Reports the time per edge on the firing thread,
+ * which includes the constant overhead of the mock, and checks that every push has been dispatched.
+ * Run it against two builds of rspio-core to compare them.
+ *
+ * Usage: <code>PinTableBenchmark [edges per round] [rounds]</code>
+ */
+public class PinTableBenchmark {
+
+    private final static GpioControllerMock GPIO_CONTROLLER = new GpioControllerMock();
+
+    private final static AtomicLong PUSHES = new AtomicLong();
+
+    @Configuration
+    static class Context {
+
+        @Bean
+        public InputController inputController() {
+            InputController inputController = new InputController();
+            // no allocation per event and no wakeups, so the listener path is not buried in queueing costs
+            inputController.setQueueMode(QueueMode.RING_BUFFER);
+            inputController.setQueueCapacity(1 << 20);
+            inputController.setWaitStrategy(WaitStrategy.BUSY_SPIN);
+            return inputController;
+        }
+
+        @Bean
+        public Supplier<GpioController> gpioControllerSupplier() {
+            return () -> GPIO_CONTROLLER;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int edges = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        try (AnnotationConfigApplicationContext springContext = new AnnotationConfigApplicationContext(Context.class)) {
+            InputController inputController = springContext.getBean(InputController.class);
+            Pin[] pins = RaspiPin.allPins();
+            for (Pin pin : pins) {
+                PushButton button = new PushButton("Button " + pin.getAddress(), pin);
+                button.setAction(blockable -> PUSHES.incrementAndGet());
+                inputController.register(button);
+            }
+            if (!inputController.start()) {
+                return;
+            }
+
+            // every pin alternates between pushed and released, so each edge changes its pin
+            PinState[] states = new PinState[pins.length];
+            for (int slot = 0; slot < pins.length; slot++) {
+                states[slot] = PinState.HIGH;
+            }
+            System.out.printf("%d pins, %d edges per round%n", pins.length, edges);
+            for (int round = 1; round <= rounds; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < edges; i++) {
+                    int slot = (i * 7) % pins.length;
+                    states[slot] = PinState.getInverseState(states[slot]);
+                    GPIO_CONTROLLER.fireEvent(pins[slot], states[slot]);
+                }
+                long elapsed = System.nanoTime() - start;
+                // let the dispatcher drain the queue between the rounds
+                Thread.sleep(200);
+                System.out.printf("Round %2d: %6.1f ns/edge%n", round, (double) elapsed / edges);
+            }
+            Thread.sleep(500);
+
+            long expected = 0;
+            for (int slot = 0; slot < pins.length; slot++) {
+                int edgesOfPin = 0;
+                for (int i = 0; i < edges; i++) {
+                    if ((i * 7) % pins.length == slot) {
+                        edgesOfPin++;
+                    }
+                }
+                // pushes are the edges to LOW, starting from HIGH
+                expected += (long) (edgesOfPin * rounds + 1) / 2;
+            }
+            System.out.printf("Pushes:   %d (expected %d)%n", PUSHES.get(), expected);
+            inputController.stop();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.zaunkoenigweg.rspio.demo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pi4j.io.gpio.GpioController;
+
+import de.zaunkoenigweg.rspio.core.component.PushButton;
+import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.mock.GpioControllerMock;
+import de.zaunkoenigweg.rspio.core.mock.PortExpanderMock;
+
+/**
+ * Wires 16 {@link PushButton}s to a simulated 16 pin I/O expander ({@link PortExpanderMock}) and checks that every push arrives.
+ *
+ * Each round pushes and releases all buttons at once, so each snapshot of the port changes 16 pins, and then
+ * delivers the same number of unchanged snapshots (e.g. interrupts of other pins). Reports the cost of both kinds
+ * of snapshots on the reading thread.
+ *
+ * Usage: <code>PortExpanderBenchmark [rounds]</code>
+ */
+public class PortExpanderBenchmark {
+
+    private final static int WIDTH = 16;
+
+    private final static PortExpanderMock EXPANDER = new PortExpanderMock("MCP23017", WIDTH);
+
+    private final static AtomicLong PUSHES = new AtomicLong();
+
+    @Configuration
+    static class Context {
+
+        @Bean
+        public InputController inputController() {
+            InputController inputController = new InputController();
+            inputController.setQueueCapacity(1 << 16);
+            return inputController;
+        }
+
+        @Bean
+        public Supplier<GpioController> gpioControllerSupplier() {
+            return GpioControllerMock::new;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        try (AnnotationConfigApplicationContext springContext = new AnnotationConfigApplicationContext(Context.class)) {
+            InputController inputController = springContext.getBean(InputController.class);
+            inputController.registerPortSource(EXPANDER);
+            for (int bit = 0; bit < WIDTH; bit++) {
+                PushButton button = new PushButton("Button " + bit, EXPANDER.getPin(bit));
+                button.setAction(blockable -> PUSHES.incrementAndGet());
+                inputController.register(button);
+            }
+            if (!inputController.start()) {
+                return;
+            }
+
+            long released = (1L << WIDTH) - 1;
+            long changing = 0;
+            long unchanged = 0;
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                EXPANDER.setPort(0);
+                EXPANDER.setPort(released);
+                changing += System.nanoTime() - start;
+                start = System.nanoTime();
+                EXPANDER.setPort(released);
+                EXPANDER.setPort(released);
+                unchanged += System.nanoTime() - start;
+                // let the dispatcher keep up
+                Thread.sleep(1);
+            }
+            Thread.sleep(500);
+
+            System.out.printf("Snapshots:          %d (%d changing %d pins each)%n", EXPANDER.getReads(), rounds * 2, WIDTH);
+            System.out.printf("Changing snapshot:  %.0f ns (%.0f ns per edge)%n", (double) changing / (rounds * 2), (double) changing / (rounds * 2 * WIDTH));
+            System.out.printf("Unchanged snapshot: %.0f ns%n", (double) unchanged / (rounds * 2));
+            System.out.printf("Pushes:             %d (expected %d)%n", PUSHES.get(), (long) rounds * WIDTH);
+            System.out.printf("State snapshot:     %s%n", Long.toBinaryString(inputController.getStateSnapshot()));
+            System.out.printf("Dispatcher:         %s%n", inputController.getStatistics(EXPANDER.getPin(0)));
+            inputController.stop();
+        }
+    }
+}
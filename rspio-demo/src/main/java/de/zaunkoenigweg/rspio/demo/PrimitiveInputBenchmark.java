@@ -0,0 +1,163 @@
+package de.zaunkoenigweg.rspio.demo;
+
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.RaspiPin;
+
+import de.zaunkoenigweg.rspio.core.component.AbstractDigitalInputComponent;
+import de.zaunkoenigweg.rspio.core.component.Blockable;
+import de.zaunkoenigweg.rspio.core.component.PrimitiveInputComponent;
+import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.input.QueueMode;
+import de.zaunkoenigweg.rspio.core.input.WaitStrategy;
+import de.zaunkoenigweg.rspio.core.mock.GpioControllerMock;
+
+/**
+ * Fires edges of several pins through the {@link GpioControllerMock} into {@link PrimitiveInputComponent}s,
+ * once with a {@link QueueMode#RING_BUFFER} and once with a {@link QueueMode#PACKED} queue.
+ *
+ * The edges are fired at the given rate. Reports the number of edges that reached the components, the dispatch latency,
+ * and the largest difference between the timestamp a component received and the time it was called,
+ * which shows that the timestamps survive packing.
+ *
+ * Usage: <code>PrimitiveInputBenchmark [edges per second] [seconds]</code>
+ */
+public class PrimitiveInputBenchmark {
+
+    private final static Pin[] PINS = { RaspiPin.GPIO_00, RaspiPin.GPIO_01, RaspiPin.GPIO_02, RaspiPin.GPIO_03, RaspiPin.GPIO_04, RaspiPin.GPIO_05, RaspiPin.GPIO_06, RaspiPin.GPIO_07 };
+
+    private static GpioControllerMock gpioController;
+
+    private static QueueMode queueMode;
+
+    /**
+     * Counts its edges and records the age of their timestamps.
+     */
+    static class EdgeCounter extends AbstractDigitalInputComponent implements PrimitiveInputComponent {
+
+        private volatile long edges = 0;
+
+        private volatile long maxAge = 0;
+
+        private volatile int lastPin = -1;
+
+        EdgeCounter(Pin pin) {
+            super("Counter " + pin.getAddress(), pin);
+        }
+
+        @Override
+        public void changed(int pin, boolean high, long timestamp, Blockable blockable) {
+            // only called by the pin's dispatcher lane
+            long age = System.nanoTime() - timestamp;
+            if (age > maxAge) {
+                maxAge = age;
+            }
+            lastPin = pin;
+            edges++;
+        }
+    }
+
+    @Configuration
+    static class Context {
+
+        @Bean
+        public InputController inputController() {
+            InputController inputController = new InputController();
+            inputController.setQueueMode(queueMode);
+            inputController.setQueueCapacity(1 << 16);
+            inputController.setWaitStrategy(WaitStrategy.PARK_SPIN);
+            return inputController;
+        }
+
+        @Bean
+        public Supplier<GpioController> gpioControllerSupplier() {
+            return () -> gpioController;
+        }
+
+        @Bean
+        public EdgeCounter counter0() {
+            return new EdgeCounter(PINS[0]);
+        }
+
+        @Bean
+        public EdgeCounter counter1() {
+            return new EdgeCounter(PINS[1]);
+        }
+
+        @Bean
+        public EdgeCounter counter2() {
+            return new EdgeCounter(PINS[2]);
+        }
+
+        @Bean
+        public EdgeCounter counter3() {
+            return new EdgeCounter(PINS[3]);
+        }
+
+        @Bean
+        public EdgeCounter counter4() {
+            return new EdgeCounter(PINS[4]);
+        }
+
+        @Bean
+        public EdgeCounter counter5() {
+            return new EdgeCounter(PINS[5]);
+        }
+
+        @Bean
+        public EdgeCounter counter6() {
+            return new EdgeCounter(PINS[6]);
+        }
+
+        @Bean
+        public EdgeCounter counter7() {
+            return new EdgeCounter(PINS[7]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int edgesPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long edges = (long) edgesPerSecond * seconds;
+        long edgeNanos = 1_000_000_000L / edgesPerSecond;
+
+        for (QueueMode mode : new QueueMode[] { QueueMode.RING_BUFFER, QueueMode.PACKED }) {
+            queueMode = mode;
+            gpioController = new GpioControllerMock();
+            try (AnnotationConfigApplicationContext springContext = new AnnotationConfigApplicationContext(Context.class)) {
+                InputController inputController = springContext.getBean(InputController.class);
+                if (!inputController.start()) {
+                    return;
+                }
+                long next = System.nanoTime();
+                for (long i = 0; i < edges; i++) {
+                    gpioController.fireEvent(PINS[(int) i & 7], (i & 8) == 0 ? PinState.LOW : PinState.HIGH);
+                    next += edgeNanos;
+                    while (System.nanoTime() < next) {
+                        // spin to keep the edge rate
+                    }
+                }
+                Thread.sleep(200);
+                long received = 0;
+                long maxAge = 0;
+                for (EdgeCounter counter : springContext.getBeansOfType(EdgeCounter.class).values()) {
+                    received += counter.edges;
+                    maxAge = Math.max(maxAge, counter.maxAge);
+                    if (counter.lastPin != counter.getPin().getAddress()) {
+                        System.out.printf("%s received pin %d%n", counter, counter.lastPin);
+                    }
+                }
+                System.out.printf("%-11s %d of %d edges received, max. timestamp age %.3f ms%n", mode, received, edges, maxAge / 1e6);
+                System.out.printf("%-11s dispatch latency: %s%n", mode, inputController.getDispatchLatency());
+                inputController.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.zaunkoenigweg.rspio.demo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.RaspiPin;
+
+import de.zaunkoenigweg.rspio.core.component.RotaryEncoder;
+import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.mock.GpioControllerMock;
+
+/**
+ * Drives a {@link RotaryEncoder} with a scripted quadrature signal through the {@link GpioControllerMock}
+ * and checks that no step is lost.
+ * 
+ * The script turns the encoder clockwise and back again, at the given edge rate, and reports the
+ * achieved rate, the final position and the number of position events that reached the action.
+ * 
+ * Usage: <code>RotaryEncoderBenchmark [edges per second] [seconds]</code>
+ */
+public class RotaryEncoderBenchmark {
+
+    private final static Pin PIN_A = RaspiPin.GPIO_04;
+    private final static Pin PIN_B = RaspiPin.GPIO_05;
+
+    /**
+     * Levels of A and B during one clockwise detent, starting at rest (both HIGH).
+     */
+    private final static Pin[] CLOCKWISE_PINS = { PIN_A, PIN_B, PIN_A, PIN_B };
+    private final static PinState[] CLOCKWISE_STATES = { PinState.LOW, PinState.LOW, PinState.HIGH, PinState.HIGH };
+
+    private final static GpioControllerMock GPIO_CONTROLLER = new GpioControllerMock();
+
+    private final static AtomicLong ACTION_RUNS = new AtomicLong();
+    private final static AtomicLong ACTION_POSITION = new AtomicLong();
+
+    @Configuration
+    static class Context {
+
+        @Bean
+        public InputController inputController() {
+            return new InputController();
+        }
+
+        @Bean
+        public Supplier<GpioController> gpioControllerSupplier() {
+            return () -> GPIO_CONTROLLER;
+        }
+
+        @Bean
+        public RotaryEncoder rotaryEncoder() {
+            RotaryEncoder rotaryEncoder = new RotaryEncoder("Volume", PIN_A, PIN_B);
+            rotaryEncoder.setAction((position, delta, blockable) -> {
+                ACTION_RUNS.incrementAndGet();
+                ACTION_POSITION.set(position);
+            });
+            return rotaryEncoder;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int edgesPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long detents = (long) edgesPerSecond * seconds / 4;
+        long forward = detents * 3 / 4;
+        long backward = detents - forward;
+
+        try (AnnotationConfigApplicationContext springContext = new AnnotationConfigApplicationContext(Context.class)) {
+            InputController inputController = springContext.getBean(InputController.class);
+            RotaryEncoder rotaryEncoder = springContext.getBean(RotaryEncoder.class);
+            if (!inputController.start()) {
+                return;
+            }
+
+            long edgeNanos = 1_000_000_000L / edgesPerSecond;
+            long start = System.nanoTime();
+            long next = start;
+            for (long edge = 0; edge < detents * 4; edge++) {
+                // clockwise first, then the same sequence backwards
+                int index = edge < forward * 4 ? (int) (edge % 4) : 3 - (int) (edge % 4);
+                PinState state = edge < forward * 4 ? CLOCKWISE_STATES[index] : PinState.getInverseState(CLOCKWISE_STATES[index]);
+                GPIO_CONTROLLER.fireEvent(CLOCKWISE_PINS[index], state);
+                next += edgeNanos;
+                while (System.nanoTime() < next) {
+                    // spin to keep the edge rate
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            Thread.sleep(200);
+
+            System.out.printf("Edges:              %d in %d ms (%d edges/s, requested %d)%n", detents * 4, elapsed / 1_000_000, detents * 4 * 1_000_000_000L / elapsed, edgesPerSecond);
+            System.out.printf("Position:           %d (expected %d)%n", rotaryEncoder.getPosition(), forward - backward);
+            System.out.printf("Action:             %d runs, last position %d%n", ACTION_RUNS.get(), ACTION_POSITION.get());
+            System.out.printf("Dispatcher:         %s%n", inputController.getStatistics(PIN_A));
+            inputController.stop();
+        }
+    }
+}
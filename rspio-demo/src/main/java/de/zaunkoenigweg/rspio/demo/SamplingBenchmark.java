@@ -0,0 +1,128 @@
+package de.zaunkoenigweg.rspio.demo;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.Pin;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.RaspiPin;
+
+import de.zaunkoenigweg.rspio.core.component.PushButton;
+import de.zaunkoenigweg.rspio.core.input.InputController;
+import de.zaunkoenigweg.rspio.core.input.LatencyStatistics;
+import de.zaunkoenigweg.rspio.core.mock.GpioControllerMock;
+
+/**
+ * Presses a badly bouncing button on a sampled pin and a clean button on a listened pin of the same {@link InputController}.
+ *
+ * Each press of the noisy button bounces for a few milliseconds on push and release. The benchmark reports how many edges
+ * the bouncing would have caused with interrupts, how many pushes reached the actions, and the measured cost of sampling
+ * (eight pins are sampled, the noisy one and seven idle ones).
+ *
+ * Usage: <code>SamplingBenchmark [presses]</code>
+ */
+public class SamplingBenchmark {
+
+    private final static Pin NOISY_PIN = RaspiPin.GPIO_00;
+    private final static Pin CLEAN_PIN = RaspiPin.GPIO_01;
+    private final static Pin[] IDLE_PINS = { RaspiPin.GPIO_02, RaspiPin.GPIO_03, RaspiPin.GPIO_04, RaspiPin.GPIO_05, RaspiPin.GPIO_06, RaspiPin.GPIO_07, RaspiPin.GPIO_08 };
+
+    private final static GpioControllerMock GPIO_CONTROLLER = new GpioControllerMock();
+
+    /**
+     * Level of the noisy pin as read by the sampler.
+     */
+    private static volatile PinState noisyState = PinState.HIGH;
+
+    private final static AtomicLong NOISY_PUSHES = new AtomicLong();
+    private final static AtomicLong CLEAN_PUSHES = new AtomicLong();
+
+    @Configuration
+    static class Context {
+
+        @Bean
+        public InputController inputController() {
+            InputController inputController = new InputController();
+            Pin[] sampledPins = new Pin[IDLE_PINS.length + 1];
+            sampledPins[0] = NOISY_PIN;
+            System.arraycopy(IDLE_PINS, 0, sampledPins, 1, IDLE_PINS.length);
+            inputController.setSampledPins(sampledPins);
+            inputController.setSampleInterval(Duration.ofMillis(1));
+            inputController.setSampleConfirmations(3);
+            return inputController;
+        }
+
+        @Bean
+        public Supplier<GpioController> gpioControllerSupplier() {
+            return () -> GPIO_CONTROLLER;
+        }
+
+        @Bean
+        public PushButton noisyButton() {
+            PushButton button = new PushButton("Noisy", NOISY_PIN);
+            button.setAction(blockable -> NOISY_PUSHES.incrementAndGet());
+            return button;
+        }
+
+        @Bean
+        public PushButton cleanButton() {
+            PushButton button = new PushButton("Clean", CLEAN_PIN);
+            button.setAction(blockable -> CLEAN_PUSHES.incrementAndGet());
+            return button;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int presses = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        Random random = new Random(42);
+        GPIO_CONTROLLER.setInputWiring(pin -> pin.equals(NOISY_PIN) ? noisyState : PinState.HIGH);
+
+        try (AnnotationConfigApplicationContext springContext = new AnnotationConfigApplicationContext(Context.class)) {
+            InputController inputController = springContext.getBean(InputController.class);
+            if (!inputController.start()) {
+                return;
+            }
+
+            long bounceEdges = 0;
+            for (int press = 0; press < presses; press++) {
+                for (PinState state : new PinState[] { PinState.LOW, PinState.HIGH }) {
+                    // bounce for 2 ms, toggling every 50-150 us
+                    long end = System.nanoTime() + 2_000_000;
+                    while (System.nanoTime() < end) {
+                        noisyState = PinState.getInverseState(noisyState);
+                        bounceEdges++;
+                        busyWait(50_000 + random.nextInt(100_000));
+                    }
+                    if (noisyState != state) {
+                        noisyState = state;
+                        bounceEdges++;
+                    }
+                    GPIO_CONTROLLER.fireEvent(CLEAN_PIN, state);
+                    Thread.sleep(20);
+                }
+            }
+            Thread.sleep(100);
+
+            LatencyStatistics samplingCost = inputController.getSamplingCost();
+            System.out.printf("Noisy button:   %d edges while bouncing, %d pushes (expected %d)%n", bounceEdges, NOISY_PUSHES.get(), presses);
+            System.out.printf("Clean button:   %d pushes (expected %d)%n", CLEAN_PUSHES.get(), presses);
+            System.out.printf("Sampling cost:  %s, %d ns per pin%n", samplingCost, samplingCost.getMeanNanos() / (IDLE_PINS.length + 1));
+            System.out.printf("Dispatcher:     %s%n", inputController.getStatistics(NOISY_PIN));
+            inputController.stop();
+        }
+    }
+
+    private static void busyWait(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            // spin to keep the bounce timing
+        }
+    }
+}
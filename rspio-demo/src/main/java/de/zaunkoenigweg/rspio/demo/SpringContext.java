@@ -1,5 +1,6 @@
 package de.zaunkoenigweg.rspio.demo;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import org.springframework.context.annotation.Bean;
@@ -28,21 +29,18 @@ public class SpringContext {
     @Bean
     public PushButton pushButtonRed() {
         PushButton pushButtonRed = new PushButton("RED Arcade Button", RaspiPin.GPIO_13);
-        pushButtonRed.setAction((blockable -> {
-            new Thread(() -> {
-                System.out.printf("RED (START)%n");
-                for (int i = 1; i < 6; i++) {
-                    try {
-                        Thread.sleep(1000);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                    System.out.printf("RED (%d)%n", i);
+        pushButtonRed.setBlockedWhileRunning(true);
+        pushButtonRed.setAsyncAction(executor -> CompletableFuture.runAsync(() -> {
+            System.out.printf("RED (START)%n");
+            for (int i = 1; i < 6; i++) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
                 }
-                blockable.unblock();
-            }).start();
-            blockable.block();
-        }));
+                System.out.printf("RED (%d)%n", i);
+            }
+        }, executor));
         return pushButtonRed;
     }
 }